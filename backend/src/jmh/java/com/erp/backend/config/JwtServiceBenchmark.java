@@ -0,0 +1,74 @@
+package com.erp.backend.config;
+
+import com.erp.backend.repository.RevokedTokenRepository;
+import com.erp.backend.service.TokenRevocationList;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Token issue and validation: signing a new access token, verifying one whose claims are cached
+// (every request after the first with a token), and verifying with the cache emptied (the first
+// request with each token), which adds the HMAC check and JSON parse.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "mySecureSecretKeyThatIsAtLeast32CharactersLongForHS256Algorithm";
+
+    private final Map<String, Object> claims = Map.of(JwtService.ROLE_CLAIM, "STUDENT", JwtService.STUDENT_ID_CLAIM, 4711L);
+
+    private JwtService jwtService;
+    private Cache<String, Claims> verifiedClaims;
+    private String token;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        TokenRevocationList revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(revocationList, "refreshExpirationMs", 1_209_600_000L);
+        ReflectionTestUtils.invokeMethod(revocationList, "init");
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 1_209_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 10_000L);
+        ReflectionTestUtils.setField(jwtService, "revocationList", revocationList);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        verifiedClaims = (Cache<String, Claims>) ReflectionTestUtils.getField(jwtService, "verifiedClaims");
+        token = jwtService.generateAccessToken("student@uni.test", claims);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateAccessToken("student@uni.test", claims);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return jwtService.verifyAccess(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyUncached() {
+        verifiedClaims.invalidateAll();
+        return jwtService.verifyAccess(token);
+    }
+}
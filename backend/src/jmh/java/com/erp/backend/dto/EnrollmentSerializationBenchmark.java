@@ -0,0 +1,95 @@
+package com.erp.backend.dto;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of enrollment lists as the API returns them: full entities with their nested
+// student and course (single-enrollment responses, the keyset page) against the EnrollmentView
+// projection the list endpoints use. The mapper is configured like Spring Boot's.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Enrollment> entities;
+    private List<EnrollmentView> views;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<Course> courses = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            Course course = new Course();
+            course.setId(i);
+            course.setCode("CS" + (100 + i));
+            course.setTitle("Course " + i);
+            course.setDescription("An introduction to the subject, its history and its open problems. ".repeat(6));
+            course.setCredits(3);
+            course.setDepartment("Computer Science");
+            course.setCreatedDate(LocalDate.of(2024, 9, 1));
+            course.setCapacity(120);
+            courses.add(course);
+        }
+
+        entities = new ArrayList<>();
+        views = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            Student student = new Student();
+            student.setId(i);
+            student.setStudentId(String.format("S%06d", i));
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@uni.test");
+            student.setPhone("+1 555 0100");
+            student.setAddress(i + " College Road, Springfield");
+            student.setMajor("Computer Science");
+            student.setYearLevel(2);
+            student.setDateOfBirth(LocalDate.of(2003, 5, 17));
+            student.setEnrollmentDate(LocalDate.of(2022, 9, 1));
+            Course course = courses.get((int) (i % courses.size()));
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setId(i);
+            enrollment.setStudent(student);
+            enrollment.setCourse(course);
+            enrollment.setEnrollmentDate(LocalDate.of(2024, 9, 2));
+            enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+            entities.add(enrollment);
+
+            views.add(new EnrollmentView(i, student.getId(), student.getStudentId(), student.getFirstName(),
+                    student.getLastName(), student.getEmail(), course.getId(), course.getCode(), course.getTitle(),
+                    course.getCredits(), enrollment.getEnrollmentDate(), null, null, null, enrollment.getStatus()));
+        }
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] views() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+}
@@ -0,0 +1,170 @@
+package com.erp.backend.service;
+
+import com.erp.backend.config.AuthenticatedUser;
+import com.erp.backend.dto.DashboardSummary;
+import com.erp.backend.dto.DepartmentCount;
+import com.erp.backend.dto.RecentCourse;
+import com.erp.backend.dto.ScoreSummary;
+import com.erp.backend.dto.StatusCount;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Dashboard aggregation over a synthetic enrollment table of 10k, 100k and 1M rows:
+// - scan: one pass over every enrollment, what the dashboard did before the counters existed
+// - rebuild: loading the counters from the GROUP BY projections (the startup/reconcile path)
+// - summary: a staff dashboard summary answered from the counters
+// - recordChange: the per-write cost of keeping the counters current
+// Repositories are mocked, so the figures exclude the database itself.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardAggregationBenchmark {
+
+    private static final Enrollment.EnrollmentStatus[] STATUSES = Enrollment.EnrollmentStatus.values();
+
+    @Param({"10000", "100000", "1000000"})
+    public int enrollments;
+
+    private Enrollment.EnrollmentStatus[] statuses;
+    private double[] scores;
+    private DashboardCounters counters;
+    private DashboardService dashboardService;
+    private Authentication staff;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        statuses = new Enrollment.EnrollmentStatus[enrollments];
+        scores = new double[enrollments];
+        for (int i = 0; i < enrollments; i++) {
+            statuses[i] = STATUSES[random.nextInt(STATUSES.length)];
+            // About a third graded, scores 0-100
+            scores[i] = random.nextInt(3) == 0 ? random.nextInt(1001) / 10.0 : 0;
+        }
+
+        EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+        // What the GROUP BY queries would return for the synthetic table
+        when(enrollmentRepository.countGroupedByStatus()).thenReturn(statusCounts());
+        when(enrollmentRepository.summarizeScores(any())).thenReturn(scoreSummary());
+        when(enrollmentRepository.countEnrolledBetween(any(), any())).thenReturn((long) enrollments / 20);
+
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        List<DepartmentCount> departments = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            departments.add(new DepartmentCount("Department " + i, 40L + i));
+        }
+        when(courseRepository.countGroupedByDepartment()).thenReturn(departments);
+        when(courseRepository.countCreatedBetween(any(), any())).thenReturn(12L);
+        when(courseRepository.findRecentCourses(any(), any()))
+                .thenReturn(List.of(new RecentCourse("Compilers", LocalDate.now().minusDays(2))));
+
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        when(studentRepository.count()).thenReturn((long) enrollments / 5);
+        when(studentRepository.countRegisteredBetween(any(), any())).thenReturn(40L);
+
+        counters = new DashboardCounters();
+        ReflectionTestUtils.setField(counters, "enrollmentRepository", enrollmentRepository);
+        ReflectionTestUtils.setField(counters, "courseRepository", courseRepository);
+        counters.rebuild();
+
+        dashboardService = new DashboardService();
+        ReflectionTestUtils.setField(dashboardService, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(dashboardService, "studentRepository", studentRepository);
+        ReflectionTestUtils.setField(dashboardService, "enrollmentRepository", enrollmentRepository);
+        ReflectionTestUtils.setField(dashboardService, "enrollmentService", new EnrollmentService());
+        ReflectionTestUtils.setField(dashboardService, "dashboardCounters", counters);
+        ReflectionTestUtils.setField(dashboardService, "dashboardExecutor", (Executor) Runnable::run);
+
+        AuthenticatedUser admin = new AuthenticatedUser("admin", AuthenticatedUser.Role.ADMIN, null);
+        staff = new UsernamePasswordAuthenticationToken(admin, null, List.of());
+    }
+
+    @Benchmark
+    public long scan() {
+        long[] byStatus = new long[STATUSES.length];
+        long graded = 0;
+        long passed = 0;
+        double scoreSum = 0;
+        for (int i = 0; i < enrollments; i++) {
+            byStatus[statuses[i].ordinal()]++;
+            double score = scores[i];
+            if (score > 0) {
+                graded++;
+                scoreSum += score;
+                if (score >= DashboardCounters.PASSING_SCORE) {
+                    passed++;
+                }
+            }
+        }
+        return byStatus[0] + graded + passed + (long) scoreSum;
+    }
+
+    @Benchmark
+    public DashboardCounters.Totals rebuild() {
+        return counters.rebuild();
+    }
+
+    @Benchmark
+    public DashboardSummary summary() {
+        return dashboardService.getSummary(staff);
+    }
+
+    @Benchmark
+    public DashboardCounters.Totals recordChange() {
+        int row = random.nextInt(enrollments);
+        Enrollment.EnrollmentStatus next = STATUSES[random.nextInt(STATUSES.length)];
+        counters.enrollmentChanged(statuses[row], scores[row], next, scores[row]);
+        // Put it back so the counters keep matching the dataset
+        counters.enrollmentChanged(next, scores[row], statuses[row], scores[row]);
+        return counters.snapshot();
+    }
+
+    private List<StatusCount> statusCounts() {
+        long[] byStatus = new long[STATUSES.length];
+        for (Enrollment.EnrollmentStatus status : statuses) {
+            byStatus[status.ordinal()]++;
+        }
+        List<StatusCount> rows = new ArrayList<>();
+        for (Enrollment.EnrollmentStatus status : STATUSES) {
+            rows.add(new StatusCount(status, byStatus[status.ordinal()]));
+        }
+        return rows;
+    }
+
+    private ScoreSummary scoreSummary() {
+        long graded = 0;
+        long passed = 0;
+        double sum = 0;
+        for (double score : scores) {
+            if (score > 0) {
+                graded++;
+                sum += score;
+                if (score >= DashboardCounters.PASSING_SCORE) {
+                    passed++;
+                }
+            }
+        }
+        return new ScoreSummary(graded, passed, sum, graded > 0 ? sum / graded : null);
+    }
+}
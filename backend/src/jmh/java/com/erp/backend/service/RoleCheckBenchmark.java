@@ -0,0 +1,69 @@
+package com.erp.backend.service;
+
+import com.erp.backend.config.AuthenticatedUser;
+import com.erp.backend.entity.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The role checks every role-scoped service call makes: for a request authenticated by
+// JwtAuthFilter (an AuthenticatedUser principal) and for any other authentication, which is
+// mapped from its granted authorities on each call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    private EnrollmentService enrollmentService;
+    private Authentication tokenStudent;
+    private Authentication authoritiesStudent;
+    private Authentication tokenAdmin;
+    private Student ownStudent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        enrollmentService = new EnrollmentService();
+        List<SimpleGrantedAuthority> studentAuthorities = List.of(new SimpleGrantedAuthority("ROLE_STUDENT"));
+        tokenStudent = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser("student@uni.test", AuthenticatedUser.Role.STUDENT, 4711L), null, studentAuthorities);
+        authoritiesStudent = new UsernamePasswordAuthenticationToken("student@uni.test", null, studentAuthorities);
+        tokenAdmin = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser("admin", AuthenticatedUser.Role.ADMIN, null), null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        ownStudent = new Student();
+        ownStudent.setId(4711L);
+        ownStudent.setEmail("student@uni.test");
+    }
+
+    @Benchmark
+    public boolean staffCheck() {
+        return enrollmentService.hasAdminOrStaffRole(tokenAdmin);
+    }
+
+    @Benchmark
+    public boolean studentCheck() {
+        return enrollmentService.hasStudentRole(tokenStudent);
+    }
+
+    @Benchmark
+    public boolean studentCheckFromAuthorities() {
+        return enrollmentService.hasStudentRole(authoritiesStudent);
+    }
+
+    @Benchmark
+    public boolean ownStudentCheck() {
+        return EnrollmentService.isOwnStudent(ownStudent, tokenStudent);
+    }
+
+    @Benchmark
+    public boolean ownStudentCheckByEmail() {
+        return EnrollmentService.isOwnStudent(ownStudent, authoritiesStudent);
+    }
+}
@@ -0,0 +1,96 @@
+package com.erp.backend.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+// The caller as the role-scoped services need it, built once per request by JwtAuthFilter:
+// the username, a single role and, for students, their Student primary key from the token.
+public final class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    public enum Role {
+        ADMIN, LECTURER, STAFF, STUDENT, NONE;
+
+        public boolean isStaff() {
+            return this == ADMIN || this == LECTURER || this == STAFF;
+        }
+
+        // The role stored on a User ("ADMIN", "STUDENT", ...)
+        public static Role of(String name) {
+            if (name != null) {
+                for (Role role : values()) {
+                    if (role != NONE && role.name().equalsIgnoreCase(name)) {
+                        return role;
+                    }
+                }
+            }
+            return NONE;
+        }
+
+        // The strongest role among granted "ROLE_*" authorities
+        public static Role of(Collection<? extends GrantedAuthority> authorities) {
+            Role best = NONE;
+            for (GrantedAuthority authority : authorities) {
+                String name = authority.getAuthority();
+                if (name != null && name.startsWith("ROLE_")) {
+                    Role role = of(name.substring("ROLE_".length()));
+                    if (role.ordinal() < best.ordinal()) {
+                        best = role;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    private final String username;
+    private final Role role;
+    private final Long studentId;
+
+    public AuthenticatedUser(String username, Role role, Long studentId) {
+        this.username = username;
+        this.role = role;
+        this.studentId = studentId;
+    }
+
+    // The principal of a request; other authentications (tests, form login) are mapped from their
+    // authorities once, without a student id
+    public static AuthenticatedUser from(Authentication authentication) {
+        if (authentication == null) {
+            return new AuthenticatedUser(null, Role.NONE, null);
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return new AuthenticatedUser(authentication.getName(), Role.of(authentication.getAuthorities()), null);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isStaff() {
+        return role.isStaff();
+    }
+
+    public boolean isStudent() {
+        return role == Role.STUDENT;
+    }
+
+    // Primary key of the caller's Student row, or null if not a student or not in the token
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,16 @@
+package com.erp.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Read-through caches for the course catalog. The store (Caffeine), size bound, TTL and stats
+// recording are configured under spring.cache in application.yml.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String COURSES = "courses";
+    public static final String COURSE_BY_ID = "courseById";
+    public static final String COURSE_BY_CODE = "courseByCode";
+    public static final String COURSES_BY_DEPARTMENT = "coursesByDepartment";
+}
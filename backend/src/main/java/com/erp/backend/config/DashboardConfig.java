@@ -0,0 +1,38 @@
+package com.erp.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class DashboardConfig {
+
+    // Runs the independent sections of a dashboard summary in parallel.
+    // When saturated the request thread computes the section itself.
+    @Bean(name = "dashboardExecutor")
+    public Executor dashboardExecutor(@Value("${dashboard.summary.threads:4}") int threads,
+                                      @Value("${dashboard.summary.queue-capacity:100}") int queueCapacity,
+                                      Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Same bounds, but the workers are virtual threads that release their carrier while blocked on JDBC
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("dashboard-").getVirtualThreadFactory());
+        }
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // SQL a section runs counts towards the dashboard request that asked for it
+        executor.setTaskDecorator(SqlRequestStats::propagate);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.erp.backend.config;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Student, course and enrollment ids used to come from IDENTITY columns. On a database that
+// already holds rows the new id sequences start at 1, so move each one past the highest
+// existing id before anything is inserted. Sequences are only ever moved forward.
+// This runs as soon as the EntityManagerFactory is built (and the schema with its sequences is
+// in place), before any bean receives it, so no pooled optimizer can have fetched a block yet.
+@Component
+public class IdSequenceInitializer implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private record IdSequence(String entity, String sequence, int allocationSize) {
+    }
+
+    private static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence(Student.class.getSimpleName(), "students_seq", Student.ID_ALLOCATION_SIZE),
+            new IdSequence(Course.class.getSimpleName(), "courses_seq", Course.ID_ALLOCATION_SIZE),
+            new IdSequence(Enrollment.class.getSimpleName(), "enrollments_seq", Enrollment.ID_ALLOCATION_SIZE));
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EntityManagerFactory entityManagerFactory
+                && bean instanceof EntityManagerFactoryInfo info && info.getDataSource() != null) {
+            alignAll(entityManagerFactory, new JdbcTemplate(info.getDataSource()));
+        }
+        return bean;
+    }
+
+    private void alignAll(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            for (IdSequence sequence : SEQUENCES) {
+                Long maxId = entityManager
+                        .createQuery("select max(e.id) from " + sequence.entity() + " e", Long.class)
+                        .getSingleResult();
+                if (maxId != null) {
+                    align(jdbcTemplate, dialect, sequence, maxId);
+                }
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void align(JdbcTemplate jdbcTemplate, Dialect dialect, IdSequence sequence, long maxId) {
+        // The pooled optimizer hands out (value - allocationSize, value], so the next value
+        // read must be at least maxId + allocationSize
+        long next = maxId + sequence.allocationSize();
+
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            Long current = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequence.sequence()), Long.class);
+            if (current != null && current < next) {
+                jdbcTemplate.execute("alter sequence " + sequence.sequence() + " restart with " + next);
+                log.info("Moved {} from {} to {}", sequence.sequence(), current, next);
+            }
+        } else {
+            // Table-backed sequence (MySQL): a single row holding next_val
+            int updated = jdbcTemplate.update(
+                    "update " + sequence.sequence() + " set next_val = ? where next_val < ?", next, next);
+            if (updated > 0) {
+                log.info("Moved {} to {}", sequence.sequence(), next);
+            }
+        }
+    }
+}
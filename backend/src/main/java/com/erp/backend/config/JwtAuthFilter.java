@@ -1,20 +1,33 @@
 package com.erp.backend.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
+// Authenticates requests carrying a valid "Authorization: Bearer <jwt>" header with an
+// AuthenticatedUser principal. Requests without one continue anonymously and endpoint rules decide
+// the rest; an invalid, expired, revoked or refresh token is rejected with 401 outside /api/auth.
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String AUTH_PATH = "/api/auth/";
+
     @Autowired
     private JwtService jwtService;
 
@@ -23,8 +36,43 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        // Pass through all requests without any JWT validation
-        // This completely disables JWT authentication
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // One signature check per token (cached after that), one user lookup per user (cached too)
+            Optional<Claims> claims = jwtService.verifyAccess(header.substring(BEARER_PREFIX.length()));
+            if (claims.isPresent()) {
+                authenticate(claims.get(), request);
+            } else if (!request.getRequestURI().startsWith(AUTH_PATH)) {
+                // A stale token is answered with 401 rather than served anonymously, so the
+                // client knows to refresh it; /api/auth itself (login, refresh, logout) still works
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+                return;
+            }
+        }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(Claims claims, HttpServletRequest request) {
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return;
+        }
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            return;
+        }
+        // The role comes from the (cached) user rather than the token, so a role change applies at once
+        AuthenticatedUser.Role role = AuthenticatedUser.Role.of(userDetails.getAuthorities());
+        Long studentId = role == AuthenticatedUser.Role.STUDENT
+                ? claims.get(JwtService.STUDENT_ID_CLAIM, Long.class)
+                : null;
+        AuthenticatedUser principal = new AuthenticatedUser(userDetails.getUsername(), role, studentId);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
 }
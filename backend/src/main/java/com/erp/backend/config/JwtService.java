@@ -1,48 +1,184 @@
 package com.erp.backend.config;
 
+import com.erp.backend.service.TokenRevocationList;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    public static final String ROLE_CLAIM = "role";
+    // Primary key of the Student row of a STUDENT user, so requests need not look it up by email
+    public static final String STUDENT_ID_CLAIM = "sid";
+    // "access" or "refresh"; tokens issued before refresh tokens existed have none and are access tokens
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
     @Value("${jwt.secret:mySecureSecretKeyThatIsAtLeast32CharactersLongForHS256Algorithm}")
     private String jwtSecret;
 
-    @Value("${jwt.expiration-ms:86400000}")
+    @Value("${jwt.expiration-ms:900000}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Verified claims by SHA-256 of the token, each entry dropped when its token expires
+    private Cache<String, Claims> verifiedClaims;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @PostConstruct
+    void init() {
+        // The secret is read as base64, as jjwt did for the String overloads this replaced,
+        // so tokens issued before keep verifying
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(jwtSecret), SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(Expiry.creating((String hash, Claims claims) -> untilExpiry(claims)))
+                .build();
+    }
+
     public String generateToken(UserDetails userDetails, Map<String, Object> claims) {
+        return generateAccessToken(userDetails.getUsername(), claims);
+    }
+
+    // Short-lived; sent with every request
+    public String generateAccessToken(String username, Map<String, Object> claims) {
+        return build(username, claims, ACCESS_TOKEN, jwtExpirationMs);
+    }
+
+    // Long-lived; only ever sent to /api/auth/refresh, and exchanged for a new one each time
+    public String generateRefreshToken(String username, Map<String, Object> claims) {
+        return build(username, claims, REFRESH_TOKEN, refreshExpirationMs);
+    }
+
+    public long getAccessExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    private String build(String username, Map<String, Object> claims, String type, long lifetimeMs) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
+                .claim(TOKEN_TYPE_CLAIM, type)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // Claims of a token with a valid signature that has not expired, or empty. Each token is
+    // parsed and verified once; repeat requests with it are answered from the cache.
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String hash = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(hash);
+        if (claims == null) {
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            verifiedClaims.put(hash, claims);
+        }
+        // Eviction is lazy, so a cached entry can outlive its token by a moment
+        if (isExpired(claims)) {
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    // An unrevoked token that may authenticate a request
+    public Optional<Claims> verifyAccess(String token) {
+        return verify(token).filter(claims -> !REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM)) && !isRevoked(claims));
+    }
+
+    // An unrevoked refresh token
+    public Optional<Claims> verifyRefresh(String token) {
+        return verify(token).filter(claims -> REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM)) && !isRevoked(claims));
+    }
+
+    // False if the token was already revoked, e.g. a refresh token that has been used before
+    public boolean revoke(Claims claims) {
+        return revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+    }
+
+    private boolean isRevoked(Claims claims) {
+        return claims.getExpiration() != null
+                && revocationList.isRevoked(claims.getId(), claims.getExpiration().getTime());
+    }
+
     public String extractUsername(String token) {
         return getClaims(token).getSubject();
     }
 
     public Claims getClaims(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+        return verify(token).orElseThrow(() -> new JwtException("Invalid or expired token"));
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return verifyAccess(token)
+                .map(claims -> userDetails.getUsername().equals(claims.getSubject()))
+                .orElse(false);
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private Duration untilExpiry(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return Duration.ofMillis(jwtExpirationMs);
+        }
+        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, Math.min(remaining, refreshExpirationMs)));
     }
 
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
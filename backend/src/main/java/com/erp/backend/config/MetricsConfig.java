@@ -0,0 +1,52 @@
+package com.erp.backend.config;
+
+import com.erp.backend.service.WaitlistPromoter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+// Application metrics on top of what Actuator binds by itself (JVM memory, GC and allocation,
+// HikariCP pool usage, Caffeine cache hit ratios, HTTP requests). Scraped at /actuator/prometheus.
+@Configuration
+public class MetricsConfig {
+
+    // Times public methods of classes annotated with @Timed (the service layer)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Queue depth, active threads and completed tasks of the background pools
+    @Bean
+    public MeterBinder executorMetrics(@Qualifier("loginExecutor") ThreadPoolTaskExecutor loginExecutor,
+                                       @Qualifier("waitlistExecutor") ThreadPoolTaskExecutor waitlistExecutor) {
+        return registry -> {
+            new ExecutorServiceMetrics(loginExecutor.getThreadPoolExecutor(), "login", List.of()).bindTo(registry);
+            new ExecutorServiceMetrics(waitlistExecutor.getThreadPoolExecutor(), "waitlist", List.of()).bindTo(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder waitlistMetrics(WaitlistPromoter waitlistPromoter) {
+        return registry -> {
+            Gauge.builder("enrollment.waitlist.in-flight", waitlistPromoter, promoter -> promoter.stats().inFlight())
+                    .description("Waitlist promotion runs queued or executing")
+                    .register(registry);
+            FunctionCounter.builder("enrollment.waitlist.promoted", waitlistPromoter, promoter -> promoter.stats().promoted())
+                    .description("Waitlisted enrollments promoted into a freed seat")
+                    .register(registry);
+            FunctionCounter.builder("enrollment.waitlist.rejected", waitlistPromoter, promoter -> promoter.stats().rejected())
+                    .description("Promotions left for the sweep because the queue was full")
+                    .register(registry);
+        };
+    }
+}
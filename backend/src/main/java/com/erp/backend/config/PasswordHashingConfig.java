@@ -0,0 +1,106 @@
+package com.erp.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Password hashing: a delegating encoder ("{bcrypt}..." hashes) whose BCrypt cost is either fixed
+// or calibrated at startup to a target hash time, and the executor logins hash on.
+@Configuration
+public class PasswordHashingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingConfig.class);
+
+    private static final String BCRYPT = "bcrypt";
+    private static final int CALIBRATION_RUNS = 3;
+
+    private int bcryptStrength;
+
+    // Hashes stored before the "{id}" prefix are plain BCrypt and still match; they, and hashes
+    // of any other cost, are rehashed on the user's next successful login
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:0}") int strength,
+                                           @Value("${auth.password.target-hash-ms:100}") long targetHashMs,
+                                           @Value("${auth.password.min-strength:10}") int minStrength,
+                                           @Value("${auth.password.max-strength:14}") int maxStrength) {
+        bcryptStrength = strength > 0 ? strength : calibrate(targetHashMs, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new ExactCostBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    // Logins run here rather than on request threads, so a login surge queues (and past the bound,
+    // is turned away) instead of occupying every servlet thread with BCrypt
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor(@Value("${auth.login.threads:0}") int threads,
+                                                @Value("${auth.login.queue-capacity:500}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // Highest cost whose hash time stays within the target; each step doubles the time
+    static int calibrate(long targetHashMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration"); // warm up
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        int strength = minStrength;
+        double hashMs = fastestNanos / 1_000_000.0;
+        while (strength < maxStrength && hashMs * 2 <= targetHashMs) {
+            strength++;
+            hashMs *= 2;
+        }
+        log.info("BCrypt cost {} (~{} ms per hash, target {} ms)", strength, Math.round(hashMs), targetHashMs);
+        return strength;
+    }
+
+    // BCrypt that asks for a rehash whenever the stored cost differs from the configured one, in
+    // either direction, so lowering the cost also takes effect as users log in
+    static class ExactCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private static final Pattern COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+        private final int strength;
+
+        ExactCostBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            Matcher matcher = COST.matcher(encodedPassword);
+            return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.erp.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReadStreamConfig {
+
+    // Runs the blocking repository reads behind the /api/stream endpoints. An open stream holds
+    // none of these threads between pages, so thousands of connections share a pool about the
+    // size of the connection pool; reads beyond queued-tasks are rejected rather than piling up.
+    @Bean(name = "readScheduler", destroyMethod = "dispose")
+    public Scheduler readScheduler(@Value("${read-stream.threads:10}") int threads,
+                                   @Value("${read-stream.queued-tasks:10000}") int queuedTasks) {
+        return Schedulers.newBoundedElastic(threads, queuedTasks, "read-stream");
+    }
+}
@@ -0,0 +1,54 @@
+package com.erp.backend.config;
+
+import com.erp.backend.controller.CourseController;
+import com.erp.backend.controller.DashboardController;
+import com.erp.backend.controller.EnrollmentController;
+import com.erp.backend.controller.StudentController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+// Per-endpoint SQL metrics (see SqlMetricsInterceptor) for the student, course, enrollment and
+// dashboard controllers. Turn off with instrumentation.sql.enabled=false.
+@Configuration
+@ConditionalOnProperty(name = "instrumentation.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    // Static so wrapping the DataSource does not instantiate this configuration early
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlMetricsConfigurer(MeterRegistry registry,
+                                                 @Value("${instrumentation.sql.slow-request-ms:500}") long slowRequestMs,
+                                                 @Value("${instrumentation.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        SqlMetricsInterceptor interceptor = new SqlMetricsInterceptor(registry,
+                Set.of(StudentController.class, CourseController.class,
+                        EnrollmentController.class, DashboardController.class),
+                slowRequestMs, nPlusOneThreshold);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(interceptor);
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.erp.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Attributes the SQL each request runs to its controller method: statement count, rows read and
+// database time go to Micrometer per method. Requests slower than slowRequestMs are logged with
+// their statements, and a statement shape repeated more than nPlusOneThreshold times in one
+// request (typically lazy loading in a loop) is logged as a likely N+1.
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsInterceptor.class);
+
+    private static final String START_ATTRIBUTE = SqlMetricsInterceptor.class.getName() + ".start";
+    private static final int LOGGED_STATEMENTS = 10;
+
+    private record Meters(Timer dbTime, DistributionSummary statements, DistributionSummary rows, Counter nPlusOne) {
+    }
+
+    private final MeterRegistry registry;
+    private final Set<Class<?>> controllers;
+    private final long slowRequestMs;
+    private final int nPlusOneThreshold;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlMetricsInterceptor(MeterRegistry registry, Set<Class<?>> controllers,
+                                 long slowRequestMs, int nPlusOneThreshold) {
+        this.registry = registry;
+        this.controllers = controllers;
+        this.slowRequestMs = slowRequestMs;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && controllers.contains(method.getBeanType())) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            SqlRequestStats.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The rest runs on another thread; only what ran here is attributed
+        finish(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request, handler);
+    }
+
+    private void finish(HttpServletRequest request, Object handler) {
+        SqlRequestStats stats = SqlRequestStats.end();
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (stats == null || start == null || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (Long) start);
+
+        Meters handlerMeters = meters.computeIfAbsent(method.getMethod(), key -> register(method));
+        handlerMeters.dbTime().record(stats.nanos(), TimeUnit.NANOSECONDS);
+        handlerMeters.statements().record(stats.statements());
+        handlerMeters.rows().record(stats.rows());
+
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        List<SqlRequestStats.Breakdown> breakdown = null;
+        if (nPlusOneThreshold > 0 && stats.statements() > nPlusOneThreshold) {
+            breakdown = stats.breakdown();
+            for (SqlRequestStats.Breakdown statement : breakdown) {
+                if (statement.count() > nPlusOneThreshold) {
+                    handlerMeters.nPlusOne().increment();
+                    log.warn("Possible N+1 in {}: {} executions of {}", endpoint, statement.count(), statement.sql());
+                }
+            }
+        }
+        if (slowRequestMs > 0 && elapsedMs >= slowRequestMs) {
+            if (breakdown == null) {
+                breakdown = stats.breakdown();
+            }
+            log.warn("Slow request {}: {} ms, {} statements, {} rows, {} ms in the database{}",
+                    endpoint, elapsedMs, stats.statements(), stats.rows(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.nanos()), describe(breakdown));
+        }
+    }
+
+    private Meters register(HandlerMethod method) {
+        Tags tags = Tags.of("controller", method.getBeanType().getSimpleName(),
+                "method", method.getMethod().getName());
+        return new Meters(
+                Timer.builder("http.server.sql.time")
+                        .description("Time spent executing SQL per request")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                DistributionSummary.builder("http.server.sql.statements")
+                        .description("SQL statements executed per request")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                DistributionSummary.builder("http.server.sql.rows")
+                        .description("Rows read from SQL results per request")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                Counter.builder("http.server.sql.n-plus-one")
+                        .description("Requests repeating one statement more than the N+1 threshold")
+                        .tags(tags)
+                        .register(registry));
+    }
+
+    private static String describe(List<SqlRequestStats.Breakdown> breakdown) {
+        return breakdown.stream()
+                .limit(LOGGED_STATEMENTS)
+                .map(statement -> String.format("%n  %5d x %6.1f ms  %s", statement.count(),
+                        statement.nanos() / 1_000_000.0, statement.sql()))
+                .collect(Collectors.joining());
+    }
+}
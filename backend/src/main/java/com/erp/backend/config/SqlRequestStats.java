@@ -0,0 +1,112 @@
+package com.erp.backend.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// SQL issued on behalf of one HTTP request: statements, rows read and time spent executing, in
+// total and per statement text. Bound to the request thread by SqlMetricsInterceptor and filled
+// in by TracingDataSource; propagate() carries it onto executor threads doing the request's work.
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    // "in (?, ?, ?)" of any length, and inline numeric literals
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static final class Statement {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public long count() { return count.sum(); }
+        public long nanos() { return nanos.sum(); }
+    }
+
+    public record Breakdown(String sql, long count, long nanos) {
+    }
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    // Keyed by the SQL as executed; Hibernate reuses the same strings, so lookups are cheap
+    private final Map<String, Statement> bySql = new ConcurrentHashMap<>();
+
+    public static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlRequestStats end() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    // Wraps a task so SQL it runs is attributed to the submitting request, if there is one
+    public static Runnable propagate(Runnable task) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlRequestStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void statementExecuted(String sql, long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+        Statement statement = bySql.computeIfAbsent(sql == null ? "<unknown>" : sql, key -> new Statement());
+        statement.count.increment();
+        statement.nanos.add(elapsedNanos);
+    }
+
+    void rowFetched() {
+        rows.increment();
+    }
+
+    public long statements() { return statements.sum(); }
+    public long rows() { return rows.sum(); }
+    public long nanos() { return nanos.sum(); }
+
+    // Statements grouped by shape (literals and IN-list lengths ignored), most time first
+    public List<Breakdown> breakdown() {
+        Map<String, long[]> grouped = new ConcurrentHashMap<>();
+        bySql.forEach((sql, statement) -> {
+            long[] totals = grouped.computeIfAbsent(normalize(sql), key -> new long[2]);
+            totals[0] += statement.count();
+            totals[1] += statement.nanos();
+        });
+        List<Breakdown> result = new ArrayList<>();
+        grouped.forEach((sql, totals) -> result.add(new Breakdown(sql, totals[0], totals[1])));
+        result.sort(Comparator.comparingLong(Breakdown::nanos).reversed());
+        return result;
+    }
+
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return NUMBER.matcher(normalized).replaceAll("?");
+    }
+}
@@ -0,0 +1,105 @@
+package com.erp.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Times every statement executed through the pool and counts the rows read from its results,
+// recording both into the current request's SqlRequestStats. Connections used outside an
+// instrumented request pass through with one ThreadLocal read per execute.
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trace(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trace(super.getConnection(username, password));
+    }
+
+    private static Connection trace(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("prepareStatement")) {
+                return traceStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (name.equals("prepareCall")) {
+                return traceStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (name.equals("createStatement")) {
+                return traceStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S traceStatement(Class<S> type, Statement statement, String preparedSql) {
+        return proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats == null || !name.startsWith("execute")) {
+                Object result = invoke(target, method, args);
+                return stats != null && name.equals("getResultSet") ? traceResultSet((ResultSet) result, stats) : result;
+            }
+            // A plain Statement carries its SQL as the first argument
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } finally {
+                stats.statementExecuted(sql, System.nanoTime() - start);
+            }
+            return result instanceof ResultSet resultSet ? traceResultSet(resultSet, stats) : result;
+        });
+    }
+
+    private static ResultSet traceResultSet(ResultSet resultSet, SqlRequestStats stats) {
+        if (resultSet == null) {
+            return null;
+        }
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
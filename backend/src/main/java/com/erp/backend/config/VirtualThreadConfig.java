@@ -0,0 +1,103 @@
+package com.erp.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Opt-in virtual-thread mode: set spring.threads.virtual.enabled=true and run on Java 21 or later
+// (on older JVMs the setting is ignored and nothing here is active). Spring Boot then serves
+// Tomcat requests and scheduled jobs on virtual threads; the dashboard and waitlist executors
+// switch to virtual threads as well (see DashboardConfig, WaitlistConfig), keeping their bounds.
+// Logins stay on platform threads: BCrypt is CPU-bound and gains nothing.
+//
+// Because request concurrency is then no longer bounded by Tomcat's thread pool, the DataSource
+// is put behind a ConnectionLimitingDataSource sized to the Hikari pool, and pinned virtual
+// threads are reported by VirtualThreadPinningMonitor.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    // Static so wrapping the DataSource does not instantiate this configuration early
+    @Bean
+    public static BeanPostProcessor connectionLimiterPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || isLimited(dataSource)) {
+                    return bean;
+                }
+                int permits = environment.getProperty("datasource.limiter.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    permits = poolSize(dataSource);
+                }
+                long timeoutMs = environment.getProperty("datasource.limiter.timeout-ms", Long.class, 30_000L);
+                log.info("Limiting concurrent database connections to {}", permits);
+                return new ConnectionLimitingDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry registry, @Value("${virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(registry, Duration.ofMillis(thresholdMs));
+    }
+
+    // How many callers hold or wait for a connection permit
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionLimitingDataSource limiter = unwrapLimiter(dataSource);
+            if (limiter == null) {
+                return;
+            }
+            Gauge.builder("datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getWaiting)
+                    .description("Threads waiting for a database connection permit")
+                    .register(registry);
+            Gauge.builder("datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Free database connection permits")
+                    .register(registry);
+        };
+    }
+
+    private static boolean isLimited(DataSource dataSource) {
+        return unwrapLimiter(dataSource) != null;
+    }
+
+    private static ConnectionLimitingDataSource unwrapLimiter(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // The Hikari pool size, or Hikari's default when the pool is not Hikari
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // fall through
+        }
+        return 10;
+    }
+}
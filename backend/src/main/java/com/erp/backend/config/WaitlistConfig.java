@@ -0,0 +1,34 @@
+package com.erp.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class WaitlistConfig {
+
+    // Background workers for waitlist promotion. The bounded queue is the backpressure point:
+    // when it is full new work is rejected and picked up by the periodic sweep instead.
+    @Bean(name = "waitlistExecutor")
+    public ThreadPoolTaskExecutor waitlistExecutor(@Value("${waitlist.threads:2}") int threads,
+                                                   @Value("${waitlist.queue-capacity:1000}") int queueCapacity,
+                                                   Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("waitlist-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // The queue stays the backpressure point; only the two workers become virtual
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("waitlist-").getVirtualThreadFactory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
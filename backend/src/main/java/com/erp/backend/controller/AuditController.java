@@ -0,0 +1,53 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.dto.EnrollmentState;
+import com.erp.backend.dto.ReplayReport;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.service.EnrollmentReplay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+
+    @Autowired
+    private EnrollmentReplay enrollmentReplay;
+
+    // Every recorded change to one enrollment, oldest first
+    @GetMapping("/enrollments/{id}/history")
+    public ResponseEntity<List<EnrollmentEvent>> getHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(enrollmentReplay.history(id));
+    }
+
+    // Enrollments rebuilt from the log as of ?at= (ISO instant; default now)
+    @GetMapping("/enrollments/state")
+    public ResponseEntity<List<EnrollmentState>> getStateAt(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        List<EnrollmentState> state = enrollmentReplay.stateAt(at).values().stream()
+                .sorted(Comparator.comparing(EnrollmentState::enrollmentId))
+                .toList();
+        return ResponseEntity.ok(state);
+    }
+
+    // Compare the enrollments table with the state the log rebuilds
+    @GetMapping("/enrollments/verify")
+    public ResponseEntity<ReplayReport> verify() {
+        return ResponseEntity.ok(enrollmentReplay.verify());
+    }
+
+    // Record a snapshot of every enrollment the log does not cover yet
+    @PostMapping("/enrollments/baseline")
+    public ResponseEntity<Integer> baseline() {
+        return ResponseEntity.ok(enrollmentReplay.baseline());
+    }
+}
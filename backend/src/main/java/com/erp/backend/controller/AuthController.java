@@ -1,15 +1,19 @@
 package com.erp.backend.controller;
 
-import com.erp.backend.config.JwtService;
+import com.erp.backend.dto.LoginStats;
+import com.erp.backend.service.LoginService;
 import com.erp.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -17,27 +21,52 @@ import java.util.Map;
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
     @Autowired
     private UserService userService;
-    @Autowired
-    private JwtService jwtService;
 
+    // Runs on the login executor; the request thread is released while the password is checked
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-        } catch (BadCredentialsException ex) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        return loginService.login(request.getUsername(), request.getPassword())
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(this::loginFailure);
+    }
+
+    private ResponseEntity<?> loginFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof AuthenticationException) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
         }
-        var user = userService.findByUsernameOrThrow(request.getUsername());
-        var userDetails = userService.loadUserByUsername(user.getUsername());
-        String token = jwtService.generateToken(userDetails, Map.of("role", user.getRole()));
-        return ResponseEntity.ok(Map.of(
-                "token", token,
-                "username", user.getUsername(),
-                "role", user.getRole()
-        ));
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many logins in progress, please retry"));
+        }
+        throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    // Rotates the refresh token: the one presented is spent and a new pair is returned
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        return loginService.refresh(request.getRefreshToken())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(401).body(Map.of("message", "Invalid or expired refresh token")));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()) : null;
+        loginService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Login queue depth, outcomes and p50/p99 latency
+    @GetMapping("/login/stats")
+    public ResponseEntity<LoginStats> getLoginStats() {
+        return ResponseEntity.ok(loginService.stats());
     }
 
     @PostMapping("/register")
@@ -70,6 +99,12 @@ public class AuthController {
         public void setPassword(String password) { this.password = password; }
     }
 
+    public static class RefreshRequest {
+        private String refreshToken;
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+
     public static class RegisterRequest {
         private String username;
         private String email;
@@ -1,6 +1,11 @@
 package com.erp.backend.controller;
 
+import com.erp.backend.dto.CacheStatistics;
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.Suggestion;
+import com.erp.backend.dto.UpsertResult;
 import com.erp.backend.entity.Course;
+import com.erp.backend.service.BulkUpsertService;
 import com.erp.backend.service.CourseService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +23,9 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
     
+    @Autowired
+    private BulkUpsertService bulkUpsertService;
+    
     // Get all courses
     @GetMapping
     public ResponseEntity<List<Course>> getAllCourses() {
@@ -25,6 +33,20 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
     
+    // Get one page of courses: ?limit=&cursor=&sort=id|-id|code|-code&department=&credits=
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Course>> getCoursesPage(@RequestParam(required = false) String department,
+                                                             @RequestParam(required = false) Integer credits,
+                                                             @RequestParam(required = false) String sort,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(courseService.getCoursesPage(department, credits, sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get course by ID
     @GetMapping("/{id}")
     public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
@@ -48,10 +70,24 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
     
-    // Search courses by title
+    // Catalog cache hit/miss statistics
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        return ResponseEntity.ok(courseService.getCacheStatistics());
+    }
+    
+    // Typeahead for pickers: ?q=&limit=, returns id and label pairs
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggestCourses(@RequestParam String q,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.suggestCourses(q, limit));
+    }
+    
+    // Ranked search over code, title, department and description: ?title=&limit=
     @GetMapping("/search")
-    public ResponseEntity<List<Course>> searchCourses(@RequestParam String title) {
-        List<Course> courses = courseService.searchCoursesByTitle(title);
+    public ResponseEntity<List<Course>> searchCourses(@RequestParam String title,
+                                                      @RequestParam(required = false) Integer limit) {
+        List<Course> courses = courseService.searchCoursesByTitle(title, limit);
         return ResponseEntity.ok(courses);
     }
     
@@ -74,6 +110,13 @@ public class CourseController {
         }
     }
     
+    // Create or update many courses at once, matched on code
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN','LECTURER')")
+    public ResponseEntity<UpsertResult> upsertCourses(@RequestBody List<Course> courses) {
+        return ResponseEntity.ok(bulkUpsertService.upsertCourses(courses));
+    }
+    
     // Update existing course
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','LECTURER')")
@@ -1,12 +1,14 @@
 package com.erp.backend.controller;
 
+import com.erp.backend.dto.DashboardSummary;
+import com.erp.backend.service.DashboardCounters;
 import com.erp.backend.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 
-import java.util.Map;
 import java.util.List;
 
 @RestController
@@ -17,53 +19,67 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    // All dashboard sections in one response
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> getSummary(Authentication authentication) {
+        try {
+            return ResponseEntity.ok(dashboardService.getSummary(authentication));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // The endpoints below return single sections of the summary
+
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(Authentication authentication) {
+    public ResponseEntity<DashboardSummary.Stats> getDashboardStats(Authentication authentication) {
         try {
-            Map<String, Object> stats = dashboardService.getDashboardStats(authentication);
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(dashboardService.getSummary(authentication).stats());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
     @GetMapping("/recent-activity")
-    public ResponseEntity<List<Map<String, Object>>> getRecentActivity(Authentication authentication) {
+    public ResponseEntity<List<DashboardSummary.Activity>> getRecentActivity(Authentication authentication) {
         try {
-            List<Map<String, Object>> activities = dashboardService.getRecentActivity(authentication);
-            return ResponseEntity.ok(activities);
+            return ResponseEntity.ok(dashboardService.getSummary(authentication).recentActivity());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
     @GetMapping("/enrollment-stats")
-    public ResponseEntity<Map<String, Object>> getEnrollmentStats(Authentication authentication) {
+    public ResponseEntity<DashboardSummary.EnrollmentStats> getEnrollmentStats(Authentication authentication) {
         try {
-            Map<String, Object> enrollmentStats = dashboardService.getEnrollmentStats(authentication);
-            return ResponseEntity.ok(enrollmentStats);
+            return ResponseEntity.ok(dashboardService.getSummary(authentication).enrollmentStats());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
     @GetMapping("/courses-by-department")
-    public ResponseEntity<List<Map<String, Object>>> getCoursesByDepartment(Authentication authentication) {
+    public ResponseEntity<List<DashboardSummary.DepartmentSlice>> getCoursesByDepartment(Authentication authentication) {
         try {
-            List<Map<String, Object>> coursesByDept = dashboardService.getCoursesByDepartment(authentication);
-            return ResponseEntity.ok(coursesByDept);
+            return ResponseEntity.ok(dashboardService.getSummary(authentication).coursesByDepartment());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
     @GetMapping("/performance-metrics")
-    public ResponseEntity<Map<String, Object>> getPerformanceMetrics(Authentication authentication) {
+    public ResponseEntity<DashboardSummary.PerformanceMetrics> getPerformanceMetrics(Authentication authentication) {
         try {
-            Map<String, Object> metrics = dashboardService.getPerformanceMetrics(authentication);
-            return ResponseEntity.ok(metrics);
+            return ResponseEntity.ok(dashboardService.getSummary(authentication).performanceMetrics());
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
+
+    // Recompute the dashboard counters from the database
+    @PostMapping("/counters/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DashboardCounters.Totals> rebuildCounters() {
+        return ResponseEntity.ok(dashboardService.rebuildCounters());
+    }
 }
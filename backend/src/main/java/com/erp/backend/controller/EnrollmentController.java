@@ -1,13 +1,22 @@
 package com.erp.backend.controller;
 
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.EnrollmentView;
 import com.erp.backend.entity.Enrollment;
+import com.erp.backend.dto.EnrollmentImportRow;
+import com.erp.backend.dto.ImportResult;
+import com.erp.backend.dto.WaitlistStats;
+import com.erp.backend.service.EnrollmentImportService;
 import com.erp.backend.service.EnrollmentService;
+import com.erp.backend.service.WaitlistPromoter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.StringReader;
 import java.util.List;
 import com.erp.backend.dto.EnrollmentRequest;
 
@@ -19,16 +28,37 @@ public class EnrollmentController {
     @Autowired
     private EnrollmentService enrollmentService;
 
+    @Autowired
+    private EnrollmentImportService enrollmentImportService;
+
+    @Autowired
+    private WaitlistPromoter waitlistPromoter;
+
     @GetMapping
-    public ResponseEntity<List<Enrollment>> getAllEnrollments() {
+    public ResponseEntity<List<EnrollmentView>> getAllEnrollments() {
         try {
-            List<Enrollment> enrollments = enrollmentService.getAllEnrollments();
+            List<EnrollmentView> enrollments = enrollmentService.getAllEnrollments();
             return ResponseEntity.ok(enrollments);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    // One page of enrollments: ?limit=&cursor=&sort=id|-id|enrollmentDate|-enrollmentDate&studentId=&courseId=&status=
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Enrollment>> getEnrollmentsPage(@RequestParam(required = false) Long studentId,
+                                                                     @RequestParam(required = false) Long courseId,
+                                                                     @RequestParam(required = false) String status,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(enrollmentService.getEnrollmentsPage(studentId, courseId, status, sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Enrollment> getEnrollmentById(@PathVariable Long id) {
         try {
@@ -59,6 +89,23 @@ public class EnrollmentController {
         }
     }
 
+    // Bulk import: a JSON array of {studentId, courseCode, status} rows
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResult> importEnrollments(@RequestBody List<EnrollmentImportRow> rows) {
+        return ResponseEntity.ok(enrollmentImportService.importEnrollments(rows));
+    }
+
+    // Bulk import: CSV with a studentId,courseCode[,status] header line
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importEnrollmentsCsv(@RequestBody String csv) {
+        try {
+            List<EnrollmentImportRow> rows = enrollmentImportService.parseCsv(new StringReader(csv));
+            return ResponseEntity.ok(enrollmentImportService.importEnrollments(rows));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Enrollment> updateEnrollment(@PathVariable Long id, @Valid @RequestBody Enrollment enrollment) {
         try {
@@ -81,9 +128,9 @@ public class EnrollmentController {
     }
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsByStudent(@PathVariable String studentId) {
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsByStudent(@PathVariable String studentId) {
         try {
-            List<Enrollment> enrollments = enrollmentService.getEnrollmentsByStudentId(studentId);
+            List<EnrollmentView> enrollments = enrollmentService.getEnrollmentsByStudentId(studentId);
             return ResponseEntity.ok(enrollments);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -91,11 +138,23 @@ public class EnrollmentController {
     }
 
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsByCourse(@PathVariable Long courseId) {
-        List<Enrollment> enrollments = enrollmentService.getEnrollmentsByCourseId(courseId);
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsByCourse(@PathVariable Long courseId) {
+        List<EnrollmentView> enrollments = enrollmentService.getEnrollmentsByCourseId(courseId);
         return ResponseEntity.ok(enrollments);
     }
 
+    // Waitlisted enrollments for a course, in promotion order
+    @GetMapping("/course/{courseId}/waitlist")
+    public ResponseEntity<List<EnrollmentView>> getWaitlist(@PathVariable Long courseId) {
+        return ResponseEntity.ok(enrollmentService.getWaitlistViews(courseId));
+    }
+
+    // Promotion queue depth, throughput and latency
+    @GetMapping("/waitlist/stats")
+    public ResponseEntity<WaitlistStats> getWaitlistStats() {
+        return ResponseEntity.ok(waitlistPromoter.stats());
+    }
+
     @PutMapping("/{id}/grade")
     public ResponseEntity<Enrollment> updateGrade(@PathVariable Long id, @RequestBody GradeUpdateRequest request) {
         try {
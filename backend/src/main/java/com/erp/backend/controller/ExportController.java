@@ -0,0 +1,53 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // Stream all enrollments: ?format=csv (default) or ?format=ndjson
+    @GetMapping("/enrollments")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(@RequestParam(required = false) String format) {
+        return stream("enrollments", format, (out, f) -> exportService.exportEnrollments(out, f));
+    }
+
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(required = false) String format) {
+        return stream("students", format, (out, f) -> exportService.exportStudents(out, f));
+    }
+
+    @GetMapping("/courses")
+    public ResponseEntity<StreamingResponseBody> exportCourses(@RequestParam(required = false) String format) {
+        return stream("courses", format, (out, f) -> exportService.exportCourses(out, f));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, String formatParam, Exporter exporter) {
+        ExportService.Format format;
+        try {
+            format = ExportService.Format.from(formatParam);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportService.Format chosen = format;
+        StreamingResponseBody body = out -> exporter.export(out, chosen);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    private interface Exporter {
+        void export(java.io.OutputStream out, ExportService.Format format);
+    }
+}
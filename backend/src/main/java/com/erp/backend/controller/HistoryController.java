@@ -0,0 +1,48 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.config.AuthenticatedUser;
+import com.erp.backend.dto.HistoryStats;
+import com.erp.backend.dto.TermSummary;
+import com.erp.backend.dto.TranscriptEntry;
+import com.erp.backend.service.EnrollmentHistoryStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Transcript and term analytics served from the enrollment history store, not the enrollment tables
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "http://localhost:3000")
+public class HistoryController {
+
+    @Autowired
+    private EnrollmentHistoryStore historyStore;
+
+    // Staff see any student's transcript, a student only their own
+    @GetMapping("/students/{id}/transcript")
+    public ResponseEntity<List<TranscriptEntry>> getTranscript(@PathVariable Long id, Authentication authentication) {
+        AuthenticatedUser user = AuthenticatedUser.from(authentication);
+        if (!user.isStaff() && !id.equals(user.getStudentId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(historyStore.transcript(id));
+    }
+
+    // Enrollments, completions, drops and average score per term the course ran in
+    @GetMapping("/courses/{id}/terms")
+    @PreAuthorize("hasAnyRole('ADMIN','LECTURER','STAFF')")
+    public ResponseEntity<List<TermSummary>> getCourseTerms(@PathVariable Long id) {
+        return ResponseEntity.ok(historyStore.courseTerms(id));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HistoryStats> getStats() {
+        return ResponseEntity.ok(historyStore.stats());
+    }
+}
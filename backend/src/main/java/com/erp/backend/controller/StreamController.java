@@ -0,0 +1,101 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.dto.DashboardSummary;
+import com.erp.backend.dto.EnrollmentView;
+import com.erp.backend.entity.Course;
+import com.erp.backend.service.CourseService;
+import com.erp.backend.service.DashboardService;
+import com.erp.backend.service.EnrollmentService;
+import com.erp.backend.service.ReadStreams;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// Read-only streaming counterparts of the course, enrollment and dashboard endpoints. Lists are
+// written as newline-delimited JSON one row at a time, reading the next page only as the client
+// keeps up; the dashboard is pushed as server-sent events. No servlet thread is held while a
+// response is open, so many slow or long-lived clients can be connected at once.
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StreamController {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ReadStreams readStreams;
+
+    @Value("${read-stream.dashboard-interval-ms:5000}")
+    private long dashboardIntervalMs;
+
+    private Flux<DashboardSummary> staffSummaries;
+
+    // Course catalog: ?department=&credits=&sort=id|-id|code|-code
+    @GetMapping(value = "/courses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Course> streamCourses(@RequestParam(required = false) String department,
+                                      @RequestParam(required = false) Integer credits,
+                                      @RequestParam(required = false) String sort) {
+        return courseService.streamCourses(department, credits, sort);
+    }
+
+    // Enrollments: ?studentId=&courseId=&status=&sort=id|-id|enrollmentDate|-enrollmentDate
+    @GetMapping(value = "/enrollments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EnrollmentView> streamEnrollments(@RequestParam(required = false) Long studentId,
+                                                  @RequestParam(required = false) Long courseId,
+                                                  @RequestParam(required = false) String status,
+                                                  @RequestParam(required = false) String sort) {
+        return enrollmentService.streamEnrollments(studentId, courseId, status, sort);
+    }
+
+    // The dashboard summary once, without holding a request thread while it is computed
+    @GetMapping("/dashboard/summary")
+    public Mono<DashboardSummary> getSummary(Authentication authentication) {
+        return readStreams.read(() -> dashboardService.getSummary(authentication));
+    }
+
+    // The dashboard summary now and then every read-stream.dashboard-interval-ms. Staff all see
+    // the same summary, so it is computed once per tick and shared by every staff subscriber (a
+    // new one gets the latest straight away); a student's is computed for that student. A client
+    // that falls behind skips summaries instead of queueing them.
+    @GetMapping(value = "/dashboard", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<DashboardSummary> streamSummary(Authentication authentication) {
+        if (dashboardService.seesStaffSummary(authentication)) {
+            return staffSummaries.onBackpressureLatest();
+        }
+        return summaries(() -> dashboardService.getSummary(authentication));
+    }
+
+    // Runs while at least one staff subscriber is connected
+    @PostConstruct
+    void shareStaffSummaries() {
+        staffSummaries = summaries(dashboardService::getStaffSummary).replay(1).refCount();
+    }
+
+    private Flux<DashboardSummary> summaries(Callable<DashboardSummary> summary) {
+        return Flux.interval(Duration.ZERO, Duration.ofMillis(dashboardIntervalMs))
+                .onBackpressureDrop()
+                .concatMap(tick -> readStreams.read(summary), 1);
+    }
+
+    // Invalid sort or status; raised before the response starts
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> badRequest() {
+        return ResponseEntity.badRequest().build();
+    }
+}
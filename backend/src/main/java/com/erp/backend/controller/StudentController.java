@@ -1,6 +1,10 @@
 package com.erp.backend.controller;
 
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.Suggestion;
+import com.erp.backend.dto.UpsertResult;
 import com.erp.backend.entity.Student;
+import com.erp.backend.service.BulkUpsertService;
 import com.erp.backend.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +22,9 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private BulkUpsertService bulkUpsertService;
+    
     // Get all students
     @GetMapping
     public ResponseEntity<List<Student>> getAllStudents() {
@@ -29,6 +36,20 @@ public class StudentController {
         }
     }
     
+    // Get one page of students: ?limit=&cursor=&sort=id|-id|studentId|-studentId&major=&yearLevel=
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Student>> getStudentsPage(@RequestParam(required = false) String major,
+                                                               @RequestParam(required = false) Integer yearLevel,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentsPage(major, yearLevel, sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get student by ID - No role-based access control
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
@@ -71,13 +92,21 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
     
-    // Search students by name
+    // Ranked search over name, student ID, email and major: ?name=&limit=
     @GetMapping("/search")
-    public ResponseEntity<List<Student>> searchStudents(@RequestParam String name) {
-        List<Student> students = studentService.searchStudentsByName(name);
+    public ResponseEntity<List<Student>> searchStudents(@RequestParam String name,
+                                                        @RequestParam(required = false) Integer limit) {
+        List<Student> students = studentService.searchStudentsByName(name, limit);
         return ResponseEntity.ok(students);
     }
     
+    // Typeahead for pickers: ?q=&limit=, returns id and label pairs
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggestStudents(@RequestParam String q,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(studentService.suggestStudents(q, limit));
+    }
+    
     // Create new student - No restrictions
     @PostMapping
     public ResponseEntity<Student> createStudent(@Valid @RequestBody Student student) {
@@ -89,6 +118,12 @@ public class StudentController {
         }
     }
     
+    // Create or update many students at once, matched on studentId
+    @PostMapping("/bulk")
+    public ResponseEntity<UpsertResult> upsertStudents(@RequestBody List<Student> students) {
+        return ResponseEntity.ok(bulkUpsertService.upsertStudents(students));
+    }
+    
     // Update existing student - No restrictions
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(@PathVariable Long id, @Valid @RequestBody Student studentDetails) {
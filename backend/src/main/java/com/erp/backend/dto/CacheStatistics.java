@@ -0,0 +1,10 @@
+package com.erp.backend.dto;
+
+// Hit/miss counters of one named cache since startup
+public record CacheStatistics(String name,
+                              long size,
+                              long hits,
+                              long misses,
+                              double hitRate,
+                              long evictions) {
+}
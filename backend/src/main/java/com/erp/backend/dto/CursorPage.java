@@ -0,0 +1,7 @@
+package com.erp.backend.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated list. Pass nextCursor back as ?cursor= to get the following page.
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore, int limit, String sort) {
+}
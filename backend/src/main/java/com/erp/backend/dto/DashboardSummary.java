@@ -0,0 +1,41 @@
+package com.erp.backend.dto;
+
+import java.util.List;
+
+// Everything the dashboard page shows, computed in one request
+public record DashboardSummary(
+        Stats stats,
+        List<Activity> recentActivity,
+        EnrollmentStats enrollmentStats,
+        List<DepartmentSlice> coursesByDepartment,
+        PerformanceMetrics performanceMetrics) {
+
+    public record Stats(long totalCourses, long totalStudents, long totalEnrollments,
+                        double completionRate, double averageGrade,
+                        String courseGrowth, String studentGrowth, String enrollmentGrowth, String completionGrowth) {
+
+        public static Stats empty() {
+            return new Stats(0, 0, 0, 0, 0, "+0%", "+0%", "+0%", "+0%");
+        }
+    }
+
+    public record Activity(String type, String icon, String text, String time) {
+    }
+
+    public record EnrollmentStats(long active, long completed, long pending, long dropped, long total) {
+
+        public static EnrollmentStats empty() {
+            return new EnrollmentStats(0, 0, 0, 0, 0);
+        }
+    }
+
+    public record DepartmentSlice(String dept, long count) {
+    }
+
+    public record PerformanceMetrics(double passRate, double retentionRate) {
+
+        public static PerformanceMetrics empty() {
+            return new PerformanceMetrics(0, 0);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.erp.backend.dto;
+
+// Number of courses offered by one department (GROUP BY projection)
+public record DepartmentCount(String department, Long count) {
+}
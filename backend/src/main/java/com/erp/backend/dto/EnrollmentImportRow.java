@@ -0,0 +1,23 @@
+package com.erp.backend.dto;
+
+// One line of a bulk enrollment import, keyed by the external student id and course code
+public class EnrollmentImportRow {
+    private String studentId;
+    private String courseCode;
+    private String status;
+
+    public EnrollmentImportRow() {}
+
+    public EnrollmentImportRow(String studentId, String courseCode, String status) {
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.status = status;
+    }
+
+    public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
+    public String getCourseCode() { return courseCode; }
+    public void setCourseCode(String courseCode) { this.courseCode = courseCode; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,5 @@
+package com.erp.backend.dto;
+
+// A (student, course) pair; at most one enrollment exists per pair
+public record EnrollmentKey(Long studentId, Long courseId) {
+}
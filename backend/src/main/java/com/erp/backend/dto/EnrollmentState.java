@@ -0,0 +1,20 @@
+package com.erp.backend.dto;
+
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// An enrollment as rebuilt from the audit log: its fields after the last event, and who made
+// that change when
+public record EnrollmentState(Long enrollmentId, Long studentId, Long courseId, Enrollment.EnrollmentStatus status,
+                             String grade, Double score, LocalDate enrollmentDate, LocalDate completionDate,
+                             long lastEventId, Instant lastChangedAt, String lastChangedBy) {
+
+    public static EnrollmentState after(EnrollmentEvent event) {
+        return new EnrollmentState(event.getEnrollmentId(), event.getStudentId(), event.getCourseId(),
+                event.getStatus(), event.getGrade(), event.getScore(), event.getEnrollmentDate(),
+                event.getCompletionDate(), event.getId(), event.getOccurredAt(), event.getActor());
+    }
+}
@@ -0,0 +1,41 @@
+package com.erp.backend.dto;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+
+import java.time.LocalDate;
+
+// An enrollment as the list endpoints return it: the student and course reduced to the fields
+// a list shows. Read with one joined JPQL query through the flat constructor.
+public record EnrollmentView(Long id, StudentRef student, CourseRef course, LocalDate enrollmentDate,
+                             LocalDate completionDate, String grade, Double score,
+                             Enrollment.EnrollmentStatus status) {
+
+    public record StudentRef(Long id, String studentId, String firstName, String lastName, String email) {
+    }
+
+    public record CourseRef(Long id, String code, String title, Integer credits) {
+    }
+
+    public EnrollmentView(Long id,
+                          Long studentPk, String studentId, String firstName, String lastName, String email,
+                          Long coursePk, String code, String title, Integer credits,
+                          LocalDate enrollmentDate, LocalDate completionDate, String grade, Double score,
+                          Enrollment.EnrollmentStatus status) {
+        this(id, new StudentRef(studentPk, studentId, firstName, lastName, email),
+                new CourseRef(coursePk, code, title, credits),
+                enrollmentDate, completionDate, grade, score, status);
+    }
+
+    // From an enrollment loaded with its student and course
+    public static EnrollmentView of(Enrollment enrollment) {
+        Student student = enrollment.getStudent();
+        Course course = enrollment.getCourse();
+        return new EnrollmentView(enrollment.getId(),
+                new StudentRef(student.getId(), student.getStudentId(), student.getFirstName(), student.getLastName(), student.getEmail()),
+                new CourseRef(course.getId(), course.getCode(), course.getTitle(), course.getCredits()),
+                enrollment.getEnrollmentDate(), enrollment.getCompletionDate(), enrollment.getGrade(), enrollment.getScore(),
+                enrollment.getStatus());
+    }
+}
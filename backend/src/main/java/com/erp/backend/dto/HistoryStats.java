@@ -0,0 +1,10 @@
+package com.erp.backend.dto;
+
+// Size of the enrollment history store and what compaction has reclaimed so far
+public record HistoryStats(int segments,
+                           long records,
+                           long fileBytes,
+                           long nextVersion,
+                           long compactions,
+                           long reclaimedRecords) {
+}
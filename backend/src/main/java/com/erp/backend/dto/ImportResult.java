@@ -0,0 +1,19 @@
+package com.erp.backend.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import. Row numbers are 1-based positions in the submitted batch
+// (for CSV, the header line is not counted). Waitlisted rows are imported rows that found
+// their course full.
+public record ImportResult(int received,
+                           int imported,
+                           int waitlisted,
+                           int duplicates,
+                           int failed,
+                           List<RowError> errors,
+                           long elapsedMs,
+                           double rowsPerSecond) {
+
+    public record RowError(int row, String message) {
+    }
+}
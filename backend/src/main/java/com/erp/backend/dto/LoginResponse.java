@@ -0,0 +1,5 @@
+package com.erp.backend.dto;
+
+// Issued on a successful login or refresh; expiresIn is the access token's lifetime in seconds
+public record LoginResponse(String token, String refreshToken, long expiresIn, String username, String role) {
+}
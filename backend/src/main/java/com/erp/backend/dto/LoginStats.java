@@ -0,0 +1,17 @@
+package com.erp.backend.dto;
+
+// Snapshot of the login executor. Percentiles cover the most recent logins; queue wait is the
+// time from the request arriving to a login thread picking it up, login time includes the wait.
+public record LoginStats(int bcryptStrength,
+                         int threads,
+                         int queueDepth,
+                         int queueCapacity,
+                         long completed,
+                         long failed,
+                         long rejected,
+                         long rehashed,
+                         double loginP50Ms,
+                         double loginP99Ms,
+                         double queueWaitP50Ms,
+                         double queueWaitP99Ms) {
+}
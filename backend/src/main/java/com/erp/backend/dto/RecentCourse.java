@@ -0,0 +1,7 @@
+package com.erp.backend.dto;
+
+import java.time.LocalDate;
+
+// Title and creation date of a recently added course
+public record RecentCourse(String title, LocalDate createdDate) {
+}
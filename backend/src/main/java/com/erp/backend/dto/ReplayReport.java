@@ -0,0 +1,16 @@
+package com.erp.backend.dto;
+
+import java.util.List;
+
+// The enrollments table compared with the state rebuilt from the audit log. Untracked
+// enrollments have no events (they predate the log); orphaned ones exist only in the log;
+// mismatched ones differ in student, course, status, grade or score. Ids are capped at 100.
+public record ReplayReport(long events,
+                           int enrollments,
+                           int matched,
+                           int untracked,
+                           int orphaned,
+                           int mismatched,
+                           List<Long> mismatchedIds,
+                           long elapsedMs) {
+}
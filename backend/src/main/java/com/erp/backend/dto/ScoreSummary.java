@@ -0,0 +1,13 @@
+package com.erp.backend.dto;
+
+// Aggregate over graded enrollments (score > 0)
+public record ScoreSummary(Long graded, Long passed, Double scoreSum, Double averageScore) {
+
+    // SUM/AVG return null over an empty set
+    public ScoreSummary {
+        graded = graded != null ? graded : 0L;
+        passed = passed != null ? passed : 0L;
+        scoreSum = scoreSum != null ? scoreSum : 0.0;
+        averageScore = averageScore != null ? averageScore : 0.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.erp.backend.dto;
+
+import com.erp.backend.entity.Enrollment;
+
+// Number of enrollments in one status (GROUP BY projection)
+public record StatusCount(Enrollment.EnrollmentStatus status, Long count) {
+}
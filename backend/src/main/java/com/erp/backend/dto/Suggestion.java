@@ -0,0 +1,5 @@
+package com.erp.backend.dto;
+
+// One typeahead entry: the entity id and the text to show for it
+public record Suggestion(Long id, String label) {
+}
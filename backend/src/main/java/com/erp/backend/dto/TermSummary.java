@@ -0,0 +1,6 @@
+package com.erp.backend.dto;
+
+// A course's enrollments grouped by the term they started in (Spring: January to May, Summer:
+// June to August, Fall: September to December). averageScore is over scored enrollments only.
+public record TermSummary(int year, String season, int enrollments, int completed, int dropped, Double averageScore) {
+}
@@ -0,0 +1,10 @@
+package com.erp.backend.dto;
+
+import com.erp.backend.entity.Enrollment;
+
+import java.time.LocalDate;
+
+// One course on a student's transcript, as last recorded in the enrollment history store
+public record TranscriptEntry(Long enrollmentId, Long courseId, Enrollment.EnrollmentStatus status, String grade,
+                              Double score, LocalDate enrollmentDate, LocalDate completionDate) {
+}
@@ -0,0 +1,13 @@
+package com.erp.backend.dto;
+
+import java.util.List;
+
+// Outcome of a bulk upsert. Row numbers are 1-based positions in the submitted array.
+public record UpsertResult(int received,
+                           int created,
+                           int updated,
+                           int rejected,
+                           List<ImportResult.RowError> errors,
+                           long elapsedMs,
+                           double rowsPerSecond) {
+}
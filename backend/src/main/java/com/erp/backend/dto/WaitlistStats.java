@@ -0,0 +1,14 @@
+package com.erp.backend.dto;
+
+// Snapshot of the waitlist promotion queue. Latency is measured from the moment a seat was
+// freed to the moment the next student was promoted into it. inFlight counts promotion runs
+// that are queued or executing.
+public record WaitlistStats(int queueDepth,
+                            int queueCapacity,
+                            int inFlight,
+                            long seatsFreed,
+                            long rejected,
+                            long promoted,
+                            double averagePromotionLatencyMs,
+                            double maxPromotionLatencyMs) {
+}
@@ -1,14 +1,25 @@
 package com.erp.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// An uninitialized lazy proxy serializes as just its fields, without Hibernate's internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_department", columnList = "department"),
+        @Index(name = "idx_courses_created_date", columnList = "createdDate")
+})
 public class Course {
 
+    // Pooled sequence ids so bulk upserts can batch their inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true)
@@ -25,6 +36,21 @@ public class Course {
 
     private LocalDate createdDate;
 
+    // Maximum number of seat-holding enrollments; null means unlimited
+    private Integer capacity;
+
+    // Seats currently held. Only ever changed by the conditional UPDATEs in CourseRepository,
+    // never by flushing a loaded Course, so concurrent claims are not overwritten.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, updatable = false)
+    private Integer seatsTaken = 0;
+
+    // Request-only: an update without a capacity keeps the current one, so clearing it (making
+    // the course unlimited) has to be asked for with "unlimitedCapacity": true
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private boolean unlimitedCapacity;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -46,4 +72,22 @@ public class Course {
 
     public LocalDate getCreatedDate() { return createdDate; }
     public void setCreatedDate(LocalDate createdDate) { this.createdDate = createdDate; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public Integer getSeatsTaken() { return seatsTaken; }
+    public void setSeatsTaken(Integer seatsTaken) { this.seatsTaken = seatsTaken; }
+
+    public boolean isUnlimitedCapacity() { return unlimitedCapacity; }
+    public void setUnlimitedCapacity(boolean unlimitedCapacity) { this.unlimitedCapacity = unlimitedCapacity; }
+
+    // The capacity after applying update: its capacity if it has one, none if it asks for
+    // unlimited, otherwise the current one
+    public Integer capacityAfter(Course update) {
+        if (update.isUnlimitedCapacity()) {
+            return null;
+        }
+        return update.getCapacity() != null ? update.getCapacity() : capacity;
+    }
 }
@@ -1,22 +1,47 @@
 package com.erp.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = {
+        @Index(name = "idx_enrollments_enrollment_date", columnList = "enrollmentDate"),
+        @Index(name = "idx_enrollments_status", columnList = "status"),
+        @Index(name = "idx_enrollments_course_status", columnList = "course_id, status, waitlistedAt")
+}, uniqueConstraints = {
+        // One enrollment per student and course, even when two requests race
+        @UniqueConstraint(name = "uk_enrollments_student_course", columnNames = {"student_id", "course_id"})
+})
 public class Enrollment {
 
-    public enum EnrollmentStatus { ENROLLED, COMPLETED, DROPPED, PENDING }
+    public enum EnrollmentStatus {
+        ENROLLED, COMPLETED, DROPPED, PENDING, WAITLISTED;
+
+        // Only current enrollments occupy one of the course's seats; completing the course
+        // gives the seat back, like dropping it
+        public boolean holdsSeat() {
+            return this == ENROLLED || this == PENDING;
+        }
+    }
+
+    // Ids come from a pooled sequence (a table on MySQL) so inserts can be JDBC-batched;
+    // IDENTITY forces one round trip per row
+    public static final int ID_ALLOCATION_SIZE = 50;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @ManyToOne(optional = false)
+    // Lazy: list endpoints read EnrollmentView projections, and the queries that need the
+    // entities themselves fetch them explicitly (see EnrollmentRepository)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private Student student;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private Course course;
 
     private LocalDate enrollmentDate;
@@ -24,9 +49,25 @@ public class Enrollment {
     private String grade;
     private Double score;
 
+    // VARCHAR rather than MySQL's native ENUM, so adding a status needs no ALTER TABLE
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
     private EnrollmentStatus status;
 
+    // When the enrollment joined its course's waitlist; orders the FIFO promotion queue
+    private LocalDateTime waitlistedAt;
+
+    @PrePersist
+    @PreUpdate
+    void trackWaitlist() {
+        if (status != EnrollmentStatus.WAITLISTED) {
+            waitlistedAt = null;
+        } else if (waitlistedAt == null) {
+            waitlistedAt = LocalDateTime.now();
+        }
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -51,4 +92,7 @@ public class Enrollment {
 
     public EnrollmentStatus getStatus() { return status; }
     public void setStatus(EnrollmentStatus status) { this.status = status; }
+
+    public LocalDateTime getWaitlistedAt() { return waitlistedAt; }
+    public void setWaitlistedAt(LocalDateTime waitlistedAt) { this.waitlistedAt = waitlistedAt; }
 }
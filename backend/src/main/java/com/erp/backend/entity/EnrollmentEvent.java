@@ -0,0 +1,136 @@
+package com.erp.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One change to an enrollment, append-only. Each event carries the enrollment as it stood right
+// after the change (and the status, grade and score before it), so the state at any point is
+// simply the last event per enrollment up to that point; see EnrollmentReplay.
+@Entity
+@Table(name = "enrollment_events", indexes = {
+        @Index(name = "idx_enrollment_events_enrollment", columnList = "enrollmentId"),
+        @Index(name = "idx_enrollment_events_occurred_at", columnList = "occurredAt")
+})
+public class EnrollmentEvent {
+
+    public enum Type {
+        CREATED, STATUS_CHANGED, GRADE_CHANGED, UPDATED, DELETED,
+        // Recorded for enrollments that existed before the log did
+        SNAPSHOT
+    }
+
+    // Pooled sequence so a flushed batch goes out as one JDBC batch
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_events_seq")
+    @SequenceGenerator(name = "enrollment_events_seq", sequenceName = "enrollment_events_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long enrollmentId;
+
+    // Enums are stored as VARCHAR, not MySQL's native ENUM, so new values need no ALTER TABLE
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    private Long studentId;
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private Enrollment.EnrollmentStatus status;
+
+    private String grade;
+    private Double score;
+    private LocalDate enrollmentDate;
+    private LocalDate completionDate;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 20)
+    private Enrollment.EnrollmentStatus previousStatus;
+
+    private String previousGrade;
+    private Double previousScore;
+
+    // Username of the caller, or "system" for background work
+    @Column(nullable = false, length = 100)
+    private String actor;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    public EnrollmentEvent() {
+    }
+
+    // The enrollment's current fields, with the given status, grade and score as the values before
+    public EnrollmentEvent(Type type, Enrollment enrollment, Enrollment.EnrollmentStatus previousStatus,
+                           String previousGrade, Double previousScore, String actor, Instant occurredAt) {
+        this.type = type;
+        this.enrollmentId = enrollment.getId();
+        this.studentId = enrollment.getStudent() != null ? enrollment.getStudent().getId() : null;
+        this.courseId = enrollment.getCourse() != null ? enrollment.getCourse().getId() : null;
+        this.status = enrollment.getStatus();
+        this.grade = enrollment.getGrade();
+        this.score = enrollment.getScore();
+        this.enrollmentDate = enrollment.getEnrollmentDate();
+        this.completionDate = enrollment.getCompletionDate();
+        this.previousStatus = previousStatus;
+        this.previousGrade = previousGrade;
+        this.previousScore = previousScore;
+        this.actor = actor;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getEnrollmentId() { return enrollmentId; }
+    public void setEnrollmentId(Long enrollmentId) { this.enrollmentId = enrollmentId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public Enrollment.EnrollmentStatus getStatus() { return status; }
+    public void setStatus(Enrollment.EnrollmentStatus status) { this.status = status; }
+
+    public String getGrade() { return grade; }
+    public void setGrade(String grade) { this.grade = grade; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public LocalDate getEnrollmentDate() { return enrollmentDate; }
+    public void setEnrollmentDate(LocalDate enrollmentDate) { this.enrollmentDate = enrollmentDate; }
+
+    public LocalDate getCompletionDate() { return completionDate; }
+    public void setCompletionDate(LocalDate completionDate) { this.completionDate = completionDate; }
+
+    public Enrollment.EnrollmentStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Enrollment.EnrollmentStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public String getPreviousGrade() { return previousGrade; }
+    public void setPreviousGrade(String previousGrade) { this.previousGrade = previousGrade; }
+
+    public Double getPreviousScore() { return previousScore; }
+    public void setPreviousScore(Double previousScore) { this.previousScore = previousScore; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public Instant getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+}
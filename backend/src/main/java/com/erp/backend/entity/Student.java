@@ -1,14 +1,24 @@
 package com.erp.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// An uninitialized lazy proxy serializes as just its fields, without Hibernate's internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_major", columnList = "major"),
+        @Index(name = "idx_students_year_level", columnList = "yearLevel")
+})
 public class Student {
 
+    // Pooled sequence ids so bulk upserts can batch their inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true)
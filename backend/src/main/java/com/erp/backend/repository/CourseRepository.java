@@ -1,15 +1,74 @@
 package com.erp.backend.repository;
 
+import com.erp.backend.dto.DepartmentCount;
+import com.erp.backend.dto.RecentCourse;
 import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
     Optional<Course> findByCode(String code);
     List<Course> findByDepartment(String department);
     List<Course> findByTitleContainingIgnoreCase(String title);
     List<Course> findByCredits(Integer credits);
     boolean existsByCode(String code);
+    List<Course> findByCodeIn(Collection<String> codes);
+
+    // Seat accounting. Each claim is a single conditional UPDATE, so concurrent claims can never
+    // push seatsTaken past capacity; a result of 0 means the course was full.
+    @Transactional
+    @Modifying
+    @Query("update Course c set c.seatsTaken = c.seatsTaken + :seats " +
+           "where c.id = :id and (c.capacity is null or c.seatsTaken + :seats <= c.capacity)")
+    int claimSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Transactional
+    @Modifying
+    @Query("update Course c set c.seatsTaken = c.seatsTaken - :seats where c.id = :id and c.seatsTaken >= :seats")
+    int releaseSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    // Seats still free, or null when the course has no capacity limit
+    @Query("select c.capacity - c.seatsTaken from Course c where c.id = :id")
+    Integer findFreeSeats(@Param("id") Long id);
+
+    // Recompute seatsTaken from the enrollments table
+    @Transactional
+    @Modifying
+    @Query("update Course c set c.seatsTaken = (select count(e) from Enrollment e " +
+           "where e.course = c and e.status not in :free)")
+    int recountSeatsTaken(@Param("free") Collection<Enrollment.EnrollmentStatus> free);
+
+    // Row-by-row read for exports; must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Course c order by c.id")
+    Stream<Course> streamAllForExport();
+
+    // Aggregates for the dashboard
+    @Query("select new com.erp.backend.dto.DepartmentCount(c.department, count(c)) from Course c group by c.department")
+    List<DepartmentCount> countGroupedByDepartment();
+
+    @Query("select count(c) from Course c where c.createdDate > :from and c.createdDate <= :to")
+    long countCreatedBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.erp.backend.dto.RecentCourse(c.title, c.createdDate) from Course c " +
+           "where c.createdDate > :since order by c.createdDate desc")
+    List<RecentCourse> findRecentCourses(@Param("since") LocalDate since, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.erp.backend.repository;
+
+import com.erp.backend.entity.EnrollmentEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface EnrollmentEventRepository extends JpaRepository<EnrollmentEvent, Long> {
+
+    // The history of one enrollment, oldest first
+    List<EnrollmentEvent> findByEnrollmentIdOrderByIdAsc(Long enrollmentId);
+
+    // The log in append order, read a batch at a time from after the last id seen
+    List<EnrollmentEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
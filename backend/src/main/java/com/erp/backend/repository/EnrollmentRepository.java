@@ -1,14 +1,124 @@
 package com.erp.backend.repository;
 
+import com.erp.backend.dto.EnrollmentKey;
+import com.erp.backend.dto.EnrollmentView;
+import com.erp.backend.dto.ScoreSummary;
+import com.erp.backend.dto.StatusCount;
 import com.erp.backend.entity.Enrollment;
 import com.erp.backend.entity.Student;
 import com.erp.backend.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, JpaSpecificationExecutor<Enrollment> {
     boolean existsByStudentAndCourse(Student student, Course course);
     List<Enrollment> findByStudent(Student student);
     List<Enrollment> findByCourse(Course course);
+
+    // Student and course are lazy; this loads them in the same select, for responses that
+    // return the whole enrollment
+    @EntityGraph(attributePaths = {"student", "course"})
+    Optional<Enrollment> findWithStudentAndCourseById(Long id);
+
+    // List projections: one joined select, no entities, no per-row association loads
+    String VIEW_SELECT = "select new com.erp.backend.dto.EnrollmentView(e.id, " +
+            "s.id, s.studentId, s.firstName, s.lastName, s.email, c.id, c.code, c.title, c.credits, " +
+            "e.enrollmentDate, e.completionDate, e.grade, e.score, e.status) " +
+            "from Enrollment e join e.student s join e.course c ";
+
+    @Query(VIEW_SELECT + "order by e.id")
+    List<EnrollmentView> findAllViews();
+
+    @Query(VIEW_SELECT + "where s.id = :studentId order by e.id")
+    List<EnrollmentView> findViewsByStudentPk(@Param("studentId") Long studentId);
+
+    @Query(VIEW_SELECT + "where c.id = :courseId order by e.id")
+    List<EnrollmentView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+    @Query(VIEW_SELECT + "where c.id = :courseId and e.status = :status order by e.waitlistedAt, e.id")
+    List<EnrollmentView> findWaitlistViews(@Param("courseId") Long courseId,
+                                           @Param("status") Enrollment.EnrollmentStatus status);
+
+    // A student's enrollments by primary key, without loading the student first
+    @Query("select e from Enrollment e where e.student.id = :studentId")
+    List<Enrollment> findByStudentPk(@Param("studentId") Long studentId);
+
+    // Waitlist, oldest first
+    @Query("select e from Enrollment e where e.course.id = :courseId and e.status = :status " +
+           "order by e.waitlistedAt, e.id")
+    List<Enrollment> findWaitlist(@Param("courseId") Long courseId,
+                                  @Param("status") Enrollment.EnrollmentStatus status);
+
+    @Query("select e.id from Enrollment e where e.course.id = :courseId and e.status = :status " +
+           "order by e.waitlistedAt, e.id")
+    List<Long> findWaitlistHead(@Param("courseId") Long courseId,
+                                @Param("status") Enrollment.EnrollmentStatus status,
+                                Pageable pageable);
+
+    // Courses with waitlisted students and at least one free seat
+    @Query("select distinct e.course.id from Enrollment e where e.status = :status " +
+           "and (e.course.capacity is null or e.course.seatsTaken < e.course.capacity)")
+    List<Long> findCoursesWithPromotableWaitlist(@Param("status") Enrollment.EnrollmentStatus status);
+
+    // Compare-and-set on status, so two promoters can never move the same enrollment
+    @Transactional
+    @Modifying
+    @Query("update Enrollment e set e.status = :to, e.waitlistedAt = null where e.id = :id and e.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Enrollment.EnrollmentStatus from,
+                         @Param("to") Enrollment.EnrollmentStatus to);
+
+    // Existing (student, course) pairs among the given ids, used to dedupe bulk imports
+    @Query("select new com.erp.backend.dto.EnrollmentKey(e.student.id, e.course.id) from Enrollment e " +
+           "where e.student.id in :studentIds and e.course.id in :courseIds")
+    List<EnrollmentKey> findExistingKeys(@Param("studentIds") Collection<Long> studentIds,
+                                         @Param("courseIds") Collection<Long> courseIds);
+
+    // Row-by-row read for exports; must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Enrollment e join fetch e.student join fetch e.course order by e.id")
+    Stream<Enrollment> streamAllForExport();
+
+    // Aggregates for the dashboard; the ...ForStudent variants are scoped to one student
+    @Query("select new com.erp.backend.dto.StatusCount(e.status, count(e)) from Enrollment e group by e.status")
+    List<StatusCount> countGroupedByStatus();
+
+    @Query("select new com.erp.backend.dto.StatusCount(e.status, count(e)) from Enrollment e " +
+           "where e.student.id = :studentId group by e.status")
+    List<StatusCount> countGroupedByStatusForStudent(@Param("studentId") Long studentId);
+
+    @Query("select new com.erp.backend.dto.ScoreSummary(count(e), " +
+           "sum(case when e.score >= :passingScore then 1L else 0L end), sum(e.score), avg(e.score)) " +
+           "from Enrollment e where e.score > 0")
+    ScoreSummary summarizeScores(@Param("passingScore") Double passingScore);
+
+    @Query("select new com.erp.backend.dto.ScoreSummary(count(e), " +
+           "sum(case when e.score >= :passingScore then 1L else 0L end), sum(e.score), avg(e.score)) " +
+           "from Enrollment e where e.score > 0 and e.student.id = :studentId")
+    ScoreSummary summarizeScoresForStudent(@Param("studentId") Long studentId, @Param("passingScore") Double passingScore);
+
+    @Query("select count(e) from Enrollment e where e.enrollmentDate > :from and e.enrollmentDate <= :to")
+    long countEnrolledBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select count(e) from Enrollment e where e.student.id = :studentId " +
+           "and e.enrollmentDate > :from and e.enrollmentDate <= :to")
+    long countEnrolledBetweenForStudent(@Param("studentId") Long studentId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
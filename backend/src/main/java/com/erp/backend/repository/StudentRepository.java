@@ -1,12 +1,21 @@
 package com.erp.backend.repository;
 
 import com.erp.backend.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByStudentId(String studentId);
     Optional<Student> findByEmail(String email);
     List<Student> findByMajor(String major);
@@ -14,4 +23,28 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
     boolean existsByStudentId(String studentId);
     boolean existsByEmail(String email);
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+
+    // Every student that a bulk upsert chunk could touch, by either unique key
+    @Query("select s from Student s where s.studentId in :studentIds or s.email in :emails")
+    List<Student> findByStudentIdInOrEmailIn(@Param("studentIds") Collection<String> studentIds,
+                                             @Param("emails") Collection<String> emails);
+
+    // Row-by-row read for exports; must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAllForExport();
+
+    // Aggregates for the dashboard
+    @Query("select count(s) from Student s where s.enrollmentDate > :from and s.enrollmentDate <= :to")
+    long countRegisteredBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select s.id from Student s where s.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select s.id from Student s where s.studentId = :studentId")
+    Optional<Long> findIdByStudentId(@Param("studentId") String studentId);
 }
@@ -0,0 +1,299 @@
+package com.erp.backend.service;
+
+import com.erp.backend.config.CacheConfig;
+import com.erp.backend.dto.ImportResult;
+import com.erp.backend.dto.UpsertResult;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+// Bulk create-or-update of students (keyed by studentId) and courses (keyed by code) for SIS
+// syncs. Each chunk loads the existing rows for all its keys in one query, splits the chunk
+// into inserts and updates, and writes them with JDBC batching in its own transaction.
+@Service
+public class BulkUpsertService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkUpsertService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private SeatAllocator seatAllocator;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public UpsertResult upsertStudents(List<Student> rows) {
+        return run("students", rows, this::upsertStudentChunk);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.COURSES, CacheConfig.COURSE_BY_ID, CacheConfig.COURSE_BY_CODE,
+            CacheConfig.COURSES_BY_DEPARTMENT}, allEntries = true)
+    public UpsertResult upsertCourses(List<Course> rows) {
+        return run("courses", rows, this::upsertCourseChunk);
+    }
+
+    private interface ChunkHandler<T> {
+        ChunkOutcome apply(List<T> chunk, int firstRow);
+    }
+
+    private <T> UpsertResult run(String kind, List<T> rows, ChunkHandler<T> handler) {
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        int created = 0;
+        int updated = 0;
+        int rejected = 0;
+
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<T> chunk = rows.subList(from, Math.min(rows.size(), from + chunkSize));
+            int firstRow = from + 1;
+            ChunkOutcome outcome;
+            try {
+                outcome = transaction.execute(status -> handler.apply(chunk, firstRow));
+            } catch (RuntimeException e) {
+                // The whole chunk was rolled back
+                log.warn("Bulk upsert of {} rows {}-{} failed: {}", kind, firstRow, firstRow + chunk.size() - 1, e.getMessage());
+                outcome = ChunkOutcome.failed(chunk.size(), firstRow, "Batch rolled back: " + e.getMessage());
+            }
+
+            created += outcome.created;
+            updated += outcome.updated;
+            rejected += outcome.errors.size();
+            for (ImportResult.RowError error : outcome.errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        double rowsPerSecond = elapsedMs > 0 ? Math.round(rows.size() * 1000.0 / elapsedMs * 10.0) / 10.0 : rows.size();
+        log.info("Upserted {} {}: {} created, {} updated, {} rejected in {} ms",
+                rows.size(), kind, created, updated, rejected, elapsedMs);
+        return new UpsertResult(rows.size(), created, updated, rejected, errors, elapsedMs, rowsPerSecond);
+    }
+
+    private ChunkOutcome upsertStudentChunk(List<Student> chunk, int firstRow) {
+        ChunkOutcome outcome = new ChunkOutcome();
+
+        Set<String> studentIds = distinct(chunk, Student::getStudentId);
+        Set<String> emails = distinct(chunk, Student::getEmail);
+        Map<String, Student> byStudentId = new HashMap<>();
+        // Owner (studentId) of every email the chunk could collide with
+        Map<String, String> emailOwners = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            // An empty IN list is not portable, so fall back to the id list when no row has an email
+            for (Student existing : studentRepository.findByStudentIdInOrEmailIn(studentIds, emails.isEmpty() ? studentIds : emails)) {
+                byStudentId.put(existing.getStudentId(), existing);
+                if (existing.getEmail() != null) {
+                    emailOwners.put(existing.getEmail(), existing.getStudentId());
+                }
+            }
+        }
+
+        Set<String> seen = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        int written = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Student row = chunk.get(i);
+            int rowNumber = firstRow + i;
+
+            String studentId = trim(row.getStudentId());
+            if (studentId == null) {
+                outcome.error(rowNumber, "studentId is required");
+                continue;
+            }
+            if (!seen.add(studentId)) {
+                outcome.error(rowNumber, "Duplicate studentId in batch: " + studentId);
+                continue;
+            }
+            String email = trim(row.getEmail());
+            if (email != null) {
+                String owner = emailOwners.get(email);
+                if (owner != null && !owner.equals(studentId)) {
+                    outcome.error(rowNumber, "Email " + email + " belongs to student " + owner);
+                    continue;
+                }
+            }
+
+            Student student = byStudentId.get(studentId);
+            if (student == null) {
+                student = new Student();
+                student.setStudentId(studentId);
+                student.setEnrollmentDate(row.getEnrollmentDate() != null ? row.getEnrollmentDate() : today);
+                outcome.created++;
+            } else {
+                if (student.getEmail() != null) {
+                    emailOwners.remove(student.getEmail());
+                }
+                if (row.getEnrollmentDate() != null) {
+                    student.setEnrollmentDate(row.getEnrollmentDate());
+                }
+                outcome.updated++;
+            }
+            student.setFirstName(row.getFirstName());
+            student.setLastName(row.getLastName());
+            student.setEmail(email);
+            student.setPhone(row.getPhone());
+            student.setDateOfBirth(row.getDateOfBirth());
+            student.setAddress(row.getAddress());
+            student.setMajor(row.getMajor());
+            student.setYearLevel(row.getYearLevel());
+            if (email != null) {
+                emailOwners.put(email, studentId);
+            }
+
+            if (student.getId() == null) {
+                entityManager.persist(student);
+            }
+            searchIndex.studentChanged(student);
+            written = flushIfBatchFull(written);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return outcome;
+    }
+
+    private ChunkOutcome upsertCourseChunk(List<Course> chunk, int firstRow) {
+        ChunkOutcome outcome = new ChunkOutcome();
+
+        Set<String> codes = distinct(chunk, Course::getCode);
+        Map<String, Course> byCode = new HashMap<>();
+        if (!codes.isEmpty()) {
+            for (Course existing : courseRepository.findByCodeIn(codes)) {
+                byCode.put(existing.getCode(), existing);
+            }
+        }
+
+        Set<String> seen = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        int written = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Course row = chunk.get(i);
+            int rowNumber = firstRow + i;
+
+            String code = trim(row.getCode());
+            if (code == null) {
+                outcome.error(rowNumber, "code is required");
+                continue;
+            }
+            if (!seen.add(code)) {
+                outcome.error(rowNumber, "Duplicate code in batch: " + code);
+                continue;
+            }
+
+            Course course = byCode.get(code);
+            if (course == null) {
+                course = new Course();
+                course.setCode(code);
+                course.setCreatedDate(row.getCreatedDate() != null ? row.getCreatedDate() : today);
+                dashboardCounters.courseAdded(row.getDepartment());
+                outcome.created++;
+            } else {
+                dashboardCounters.courseDepartmentChanged(course.getDepartment(), row.getDepartment());
+                seatAllocator.capacityChanged(course.getId(), course.getCapacity(), course.capacityAfter(row));
+                outcome.updated++;
+            }
+            course.setTitle(row.getTitle());
+            course.setDescription(row.getDescription());
+            course.setCredits(row.getCredits());
+            course.setDepartment(row.getDepartment());
+            course.setCapacity(course.capacityAfter(row));
+
+            if (course.getId() == null) {
+                entityManager.persist(course);
+            }
+            searchIndex.courseChanged(course);
+            written = flushIfBatchFull(written);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return outcome;
+    }
+
+    // Send pending inserts and updates once a JDBC batch worth has built up; the persistence
+    // context itself is only cleared at the end of the chunk
+    private int flushIfBatchFull(int written) {
+        if (++written % batchSize == 0) {
+            entityManager.flush();
+        }
+        return written;
+    }
+
+    private static <T> Set<String> distinct(List<T> rows, Function<T, String> field) {
+        Set<String> values = new HashSet<>();
+        for (T row : rows) {
+            String value = trim(field.apply(row));
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static String trim(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static class ChunkOutcome {
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+        private int created;
+        private int updated;
+
+        void error(int row, String message) {
+            errors.add(new ImportResult.RowError(row, message));
+        }
+
+        static ChunkOutcome failed(int size, int firstRow, String message) {
+            ChunkOutcome outcome = new ChunkOutcome();
+            for (int i = 0; i < size; i++) {
+                outcome.error(firstRow + i, message);
+            }
+            return outcome;
+        }
+    }
+}
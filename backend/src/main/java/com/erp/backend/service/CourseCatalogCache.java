@@ -0,0 +1,59 @@
+package com.erp.backend.service;
+
+import com.erp.backend.config.CacheConfig;
+import com.erp.backend.entity.Course;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Eviction of CourseService's catalog caches for writes that bypass CourseService: the cached
+// courses carry seatsTaken, which seat claims and releases change with direct UPDATEs.
+@Component
+public class CourseCatalogCache {
+
+    private static final List<String> CACHES = List.of(CacheConfig.COURSES, CacheConfig.COURSE_BY_ID,
+            CacheConfig.COURSE_BY_CODE, CacheConfig.COURSES_BY_DEPARTMENT);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Once the change commits, drop the course's entries (found through its by-id entry) and the
+    // full list. Without a by-id entry to say where else the course is cached, the by-code and
+    // by-department caches are cleared.
+    public void seatsChanged(Long courseId) {
+        AfterCommit.run(() -> {
+            Cache byId = cacheManager.getCache(CacheConfig.COURSE_BY_ID);
+            Course cached = byId != null ? byId.get(courseId, Course.class) : null;
+            evict(CacheConfig.COURSE_BY_ID, courseId);
+            clear(CacheConfig.COURSES);
+            if (cached != null && cached.getCode() != null && cached.getDepartment() != null) {
+                evict(CacheConfig.COURSE_BY_CODE, cached.getCode());
+                evict(CacheConfig.COURSES_BY_DEPARTMENT, cached.getDepartment());
+            } else {
+                clear(CacheConfig.COURSE_BY_CODE);
+                clear(CacheConfig.COURSES_BY_DEPARTMENT);
+            }
+        });
+    }
+
+    public void clear() {
+        CACHES.forEach(this::clear);
+    }
+
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -1,43 +1,127 @@
 package com.erp.backend.service;
 
+import com.erp.backend.config.CacheConfig;
+import com.erp.backend.dto.CacheStatistics;
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.Suggestion;
 import com.erp.backend.entity.Course;
 import com.erp.backend.repository.CourseRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
+@Timed(value = "service.method", histogram = true)
 public class CourseService {
     
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private SeatAllocator seatAllocator;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private SearchIndexService searchIndex;
+    
+    @Autowired
+    private ReadStreams readStreams;
+    
+    // Properties the course list can be sorted by (all indexed)
+    private static final Map<String, Class<?>> SORTABLE = Map.of(
+            "id", Long.class,
+            "code", String.class);
+    
     // Get all courses
+    @Cacheable(CacheConfig.COURSES)
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
     
+    // Get one page of courses, optionally filtered by department and credits
+    public CursorPage<Course> getCoursesPage(String department, Integer credits, String sort, String cursor, Integer limit) {
+        Specification<Course> spec = (root, query, cb) -> cb.conjunction();
+        if (department != null && !department.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("department"), department));
+        }
+        if (credits != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("credits"), credits));
+        }
+        return keysetPager.page(courseRepository, spec, SORTABLE, sort, cursor, limit);
+    }
+    
+    // The same list as getCoursesPage, streamed page by page as the caller consumes it
+    public Flux<Course> streamCourses(String department, Integer credits, String sort) {
+        keysetPager.checkSort(SORTABLE, sort);
+        return readStreams.pages((cursor, limit) -> getCoursesPage(department, credits, sort, cursor, limit));
+    }
+    
     // Get course by ID
+    @Cacheable(cacheNames = CacheConfig.COURSE_BY_ID, unless = "#result == null")
     public Optional<Course> getCourseById(Long id) {
         return courseRepository.findById(id);
     }
     
     // Get course by code
+    @Cacheable(cacheNames = CacheConfig.COURSE_BY_CODE, unless = "#result == null")
     public Optional<Course> getCourseByCode(String code) {
         return courseRepository.findByCode(code);
     }
     
     // Get courses by department
+    @Cacheable(CacheConfig.COURSES_BY_DEPARTMENT)
     public List<Course> getCoursesByDepartment(String department) {
         return courseRepository.findByDepartment(department);
     }
     
-    // Search courses by title
+    // Typeahead: up to `limit` courses whose code or title starts with the prefix
+    public List<Suggestion> suggestCourses(String prefix, Integer limit) {
+        return searchIndex.suggestCourses(prefix, limit).orElseGet(() ->
+                // Index still loading: fall back to the database
+                courseRepository.findByTitleContainingIgnoreCase(prefix)
+                        .stream()
+                        .limit(searchIndex.resolveSuggestLimit(limit))
+                        .map(course -> new Suggestion(course.getId(), searchIndex.courseLabel(course)))
+                        .toList());
+    }
+    
+    // Search courses by title, code, department and description, best match first
     public List<Course> searchCoursesByTitle(String title) {
-        return courseRepository.findByTitleContainingIgnoreCase(title);
+        return searchCoursesByTitle(title, null);
+    }
+    
+    public List<Course> searchCoursesByTitle(String title, Integer limit) {
+        Optional<List<Long>> ranked = searchIndex.searchCourses(title, limit);
+        if (ranked.isEmpty()) {
+            // Index still loading: fall back to the database
+            return courseRepository.findByTitleContainingIgnoreCase(title)
+                    .stream().limit(searchIndex.resolveLimit(limit)).toList();
+        }
+        Map<Long, Course> byId = new HashMap<>();
+        courseRepository.findAllById(ranked.get()).forEach(course -> byId.put(course.getId(), course));
+        return ranked.get().stream().map(byId::get).filter(Objects::nonNull).toList();
     }
     
     // Get courses by credits
@@ -46,6 +130,8 @@ public class CourseService {
     }
     
     // Create new course
+    @CacheEvict(cacheNames = {CacheConfig.COURSES, CacheConfig.COURSE_BY_ID, CacheConfig.COURSE_BY_CODE,
+            CacheConfig.COURSES_BY_DEPARTMENT}, allEntries = true)
     public Course createCourse(Course course) {
         // Check if course code already exists
         if (courseRepository.existsByCode(course.getCode())) {
@@ -55,10 +141,16 @@ public class CourseService {
         if (course.getCreatedDate() == null) {
             course.setCreatedDate(LocalDate.now());
         }
-        return courseRepository.save(course);
+        course.setSeatsTaken(0);
+        Course saved = courseRepository.save(course);
+        dashboardCounters.courseAdded(saved.getDepartment());
+        searchIndex.courseChanged(saved);
+        return saved;
     }
     
     // Update existing course
+    @CacheEvict(cacheNames = {CacheConfig.COURSES, CacheConfig.COURSE_BY_ID, CacheConfig.COURSE_BY_CODE,
+            CacheConfig.COURSES_BY_DEPARTMENT}, allEntries = true)
     public Course updateCourse(Long id, Course courseDetails) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
@@ -69,20 +161,45 @@ public class CourseService {
             throw new RuntimeException("Course with code " + courseDetails.getCode() + " already exists");
         }
         
+        String oldDepartment = course.getDepartment();
+        Integer oldCapacity = course.getCapacity();
         course.setCode(courseDetails.getCode());
         course.setTitle(courseDetails.getTitle());
         course.setDescription(courseDetails.getDescription());
         course.setCredits(courseDetails.getCredits());
         course.setDepartment(courseDetails.getDepartment());
+        course.setCapacity(course.capacityAfter(courseDetails));
         
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        dashboardCounters.courseDepartmentChanged(oldDepartment, saved.getDepartment());
+        seatAllocator.capacityChanged(saved.getId(), oldCapacity, saved.getCapacity());
+        searchIndex.courseChanged(saved);
+        return saved;
     }
     
     // Delete course
+    @CacheEvict(cacheNames = {CacheConfig.COURSES, CacheConfig.COURSE_BY_ID, CacheConfig.COURSE_BY_CODE,
+            CacheConfig.COURSES_BY_DEPARTMENT}, allEntries = true)
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
         courseRepository.delete(course);
+        dashboardCounters.courseRemoved(course.getDepartment());
+        searchIndex.courseRemoved(id);
+    }
+    
+    // Hit/miss statistics of the catalog caches
+    public List<CacheStatistics> getCacheStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+                com.github.benmanes.caffeine.cache.stats.CacheStats stats = nativeCache.stats();
+                statistics.add(new CacheStatistics(name, nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return statistics;
     }
     
     // Check if course exists
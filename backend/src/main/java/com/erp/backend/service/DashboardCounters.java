@@ -0,0 +1,287 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.DepartmentCount;
+import com.erp.backend.dto.ScoreSummary;
+import com.erp.backend.dto.StatusCount;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Incrementally maintained aggregates behind the dashboard endpoints.
+// EnrollmentService and CourseService report every write here so the dashboard can be
+// answered with O(1) reads instead of loading every enrollment and course.
+@Component
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    // Scores are kept as fixed-point thousandths so that add/subtract is exact
+    private static final double SCORE_SCALE = 1000.0;
+    public static final double PASSING_SCORE = 60.0;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final AtomicLongArray statusCounts = new AtomicLongArray(Enrollment.EnrollmentStatus.values().length);
+    private final AtomicLong totalEnrollments = new AtomicLong();
+    private final AtomicLong gradedCount = new AtomicLong();
+    private final AtomicLong passedCount = new AtomicLong();
+    private final AtomicLong scoreSum = new AtomicLong();
+    private final Map<String, AtomicLong> departmentCourseCounts = new ConcurrentHashMap<>();
+
+    // Writers share the read lock; rebuild takes the write lock to swap in a consistent snapshot
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // Record an enrollment row appearing in the table
+    public void enrollmentAdded(Enrollment.EnrollmentStatus status, Double score) {
+        AfterCommit.run(() -> applyEnrollment(status, score, 1));
+    }
+
+    // Record a batch of new enrollment rows without scores (bulk import)
+    public void enrollmentsAdded(Enrollment.EnrollmentStatus status, long count) {
+        if (count <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            rebuildLock.readLock().lock();
+            try {
+                totalEnrollments.addAndGet(count);
+                if (status != null) {
+                    statusCounts.addAndGet(status.ordinal(), count);
+                }
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+        });
+    }
+
+    // Record an enrollment row disappearing from the table
+    public void enrollmentRemoved(Enrollment.EnrollmentStatus status, Double score) {
+        AfterCommit.run(() -> applyEnrollment(status, score, -1));
+    }
+
+    // Record a status and/or score change on an existing enrollment
+    public void enrollmentChanged(Enrollment.EnrollmentStatus oldStatus, Double oldScore,
+                                  Enrollment.EnrollmentStatus newStatus, Double newScore) {
+        if (oldStatus == newStatus && Objects.equals(oldScore, newScore)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            applyEnrollment(oldStatus, oldScore, -1);
+            applyEnrollment(newStatus, newScore, 1);
+        });
+    }
+
+    public void courseAdded(String department) {
+        AfterCommit.run(() -> applyCourse(department, 1));
+    }
+
+    public void courseRemoved(String department) {
+        AfterCommit.run(() -> applyCourse(department, -1));
+    }
+
+    public void courseDepartmentChanged(String oldDepartment, String newDepartment) {
+        if (Objects.equals(departmentKey(oldDepartment), departmentKey(newDepartment))) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            applyCourse(oldDepartment, -1);
+            applyCourse(newDepartment, 1);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Totals snapshot() {
+        rebuildLock.readLock().lock();
+        try {
+            long[] byStatus = new long[statusCounts.length()];
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = statusCounts.get(i);
+            }
+            return new Totals(byStatus, totalEnrollments.get(), gradedCount.get(), passedCount.get(),
+                    scoreSum.get() / SCORE_SCALE);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Long> departmentCourseCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        departmentCourseCounts.forEach((dept, count) -> {
+            if (count.get() > 0) {
+                counts.put(dept, count.get());
+            }
+        });
+        return counts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    // Periodically compare the counters with the database and repair any drift
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-interval-ms:300000}",
+               fixedDelayString = "${dashboard.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Totals expected = loadEnrollmentTotals();
+        Map<String, Long> expectedDepartments = loadDepartmentCounts();
+        Totals actual = snapshot();
+
+        if (!expected.matches(actual) || !expectedDepartments.equals(departmentCourseCounts())) {
+            log.warn("Dashboard counters drifted from database (expected {}, found {}); rebuilding", expected, actual);
+            rebuild();
+        }
+    }
+
+    // Recompute every counter from the database. A write committing while this runs may be
+    // counted twice; the next reconcile pass repairs that.
+    public Totals rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Totals totals = loadEnrollmentTotals();
+            Map<String, Long> departments = loadDepartmentCounts();
+
+            for (int i = 0; i < statusCounts.length(); i++) {
+                statusCounts.set(i, totals.statusCounts[i]);
+            }
+            totalEnrollments.set(totals.total);
+            gradedCount.set(totals.graded);
+            passedCount.set(totals.passed);
+            scoreSum.set(toFixedPoint(totals.scoreSum));
+
+            departmentCourseCounts.clear();
+            departments.forEach((dept, count) -> departmentCourseCounts.put(dept, new AtomicLong(count)));
+
+            ready = true;
+            return totals;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Totals loadEnrollmentTotals() {
+        return Totals.of(enrollmentRepository.countGroupedByStatus(), enrollmentRepository.summarizeScores(PASSING_SCORE));
+    }
+
+    private Map<String, Long> loadDepartmentCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (DepartmentCount row : courseRepository.countGroupedByDepartment()) {
+            counts.merge(departmentKey(row.department()), row.count(), Long::sum);
+        }
+        return counts;
+    }
+
+    private void applyEnrollment(Enrollment.EnrollmentStatus status, Double score, int delta) {
+        rebuildLock.readLock().lock();
+        try {
+            totalEnrollments.addAndGet(delta);
+            if (status != null) {
+                statusCounts.addAndGet(status.ordinal(), delta);
+            }
+            if (score != null && score > 0) {
+                gradedCount.addAndGet(delta);
+                scoreSum.addAndGet(delta * toFixedPoint(score));
+                if (score >= PASSING_SCORE) {
+                    passedCount.addAndGet(delta);
+                }
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void applyCourse(String department, int delta) {
+        rebuildLock.readLock().lock();
+        try {
+            departmentCourseCounts.computeIfAbsent(departmentKey(department), k -> new AtomicLong()).addAndGet(delta);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private static String departmentKey(String department) {
+        return department != null ? department : "Unknown";
+    }
+
+    private static long toFixedPoint(double score) {
+        return Math.round(score * SCORE_SCALE);
+    }
+
+    // Immutable view of the enrollment aggregates
+    public static class Totals {
+        private final long[] statusCounts;
+        private final long total;
+        private final long graded;
+        private final long passed;
+        private final double scoreSum;
+
+        public Totals(long[] statusCounts, long total, long graded, long passed, double scoreSum) {
+            this.statusCounts = statusCounts;
+            this.total = total;
+            this.graded = graded;
+            this.passed = passed;
+            this.scoreSum = scoreSum;
+        }
+
+        // Combine the GROUP BY status and score aggregate projections
+        public static Totals of(List<StatusCount> statusCounts, ScoreSummary scores) {
+            long[] byStatus = new long[Enrollment.EnrollmentStatus.values().length];
+            long total = 0;
+            for (StatusCount row : statusCounts) {
+                if (row.status() != null) {
+                    byStatus[row.status().ordinal()] = row.count();
+                }
+                total += row.count();
+            }
+            return new Totals(byStatus, total, scores.graded(), scores.passed(), scores.scoreSum());
+        }
+
+        public long count(Enrollment.EnrollmentStatus status) { return statusCounts[status.ordinal()]; }
+        public long getTotal() { return total; }
+        public long getGraded() { return graded; }
+        public long getPassed() { return passed; }
+        public double getScoreSum() { return scoreSum; }
+
+        public double getAverageScore() {
+            return graded > 0 ? scoreSum / graded : 0;
+        }
+
+        boolean matches(Totals other) {
+            return total == other.total
+                    && graded == other.graded
+                    && passed == other.passed
+                    && Arrays.equals(statusCounts, other.statusCounts)
+                    // allow half a thousandth of rounding per graded row
+                    && Math.abs(toFixedPoint(scoreSum) - toFixedPoint(other.scoreSum)) <= Math.max(1, graded);
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{total=" + total + ", byStatus=" + Arrays.toString(statusCounts)
+                    + ", graded=" + graded + ", passed=" + passed + ", scoreSum=" + scoreSum + "}";
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package com.erp.backend.service;
 
-import com.erp.backend.entity.Course;
-import com.erp.backend.entity.Student;
+import com.erp.backend.dto.DashboardSummary;
+import com.erp.backend.dto.RecentCourse;
 import com.erp.backend.entity.Enrollment;
 import com.erp.backend.repository.CourseRepository;
 import com.erp.backend.repository.StudentRepository;
 import com.erp.backend.repository.EnrollmentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.method", histogram = true)
 public class DashboardService {
 
     @Autowired
@@ -29,277 +33,224 @@ public class DashboardService {
     private EnrollmentRepository enrollmentRepository;
 
     @Autowired
-    private StudentService studentService;
+    private EnrollmentService enrollmentService;
 
     @Autowired
-    private EnrollmentService enrollmentService;
+    private DashboardCounters dashboardCounters;
 
-    public Map<String, Object> getDashboardStats(Authentication authentication) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // Get role-based data
-            List<Course> courses = courseRepository.findAll();
-            List<Student> students = studentService.getAllStudentsBasedOnRole(authentication);
-            List<Enrollment> enrollments = enrollmentService.getAllEnrollmentsBasedOnRole(authentication);
-
-            // Calculate basic stats
-            int totalCourses = courses.size();
-            int totalStudents = students.size();
-            int totalEnrollments = enrollments.size();
-
-            // Calculate completion rate
-            long completedEnrollments = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.COMPLETED)
-                    .count();
-            double completionRate = totalEnrollments > 0 ? 
-                    (double) completedEnrollments / totalEnrollments * 100 : 0;
-
-            // Calculate growth rates (comparing with last month's data)
-            LocalDate lastMonth = LocalDate.now().minusMonths(1);
-            
-            // Course growth
-            long recentCourses = courses.stream()
-                    .filter(c -> c.getCreatedDate() != null && c.getCreatedDate().isAfter(lastMonth))
-                    .count();
-            double courseGrowth = totalCourses > 0 ? (double) recentCourses / totalCourses * 100 : 0;
-
-            // Student growth
-            long recentStudents = students.stream()
-                    .filter(s -> s.getEnrollmentDate() != null && s.getEnrollmentDate().isAfter(lastMonth))
-                    .count();
-            double studentGrowth = totalStudents > 0 ? (double) recentStudents / totalStudents * 100 : 0;
-
-            // Enrollment growth
-            long recentEnrollments = enrollments.stream()
-                    .filter(e -> e.getEnrollmentDate() != null && e.getEnrollmentDate().isAfter(lastMonth))
-                    .count();
-            double enrollmentGrowth = totalEnrollments > 0 ? (double) recentEnrollments / totalEnrollments * 100 : 0;
-
-            // Average grade calculation
-            OptionalDouble avgGrade = enrollments.stream()
-                    .filter(e -> e.getScore() != null && e.getScore() > 0)
-                    .mapToDouble(Enrollment::getScore)
-                    .average();
-
-            stats.put("totalCourses", totalCourses);
-            stats.put("totalStudents", totalStudents);
-            stats.put("totalEnrollments", totalEnrollments);
-            stats.put("completionRate", Math.round(completionRate * 10.0) / 10.0);
-            stats.put("averageGrade", avgGrade.isPresent() ? Math.round(avgGrade.getAsDouble() * 10.0) / 10.0 : 0);
-            stats.put("courseGrowth", "+" + Math.round(courseGrowth * 10.0) / 10.0 + "%");
-            stats.put("studentGrowth", "+" + Math.round(studentGrowth * 10.0) / 10.0 + "%");
-            stats.put("enrollmentGrowth", "+" + Math.round(enrollmentGrowth * 10.0) / 10.0 + "%");
-            stats.put("completionGrowth", "+2.3%"); // This could be calculated based on historical data
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private Executor dashboardExecutor;
 
+    // Compute every dashboard section for one request. The role scope and the counter snapshot
+    // are resolved once; sections that need their own queries run concurrently.
+    public DashboardSummary getSummary(Authentication authentication) {
+        Long studentId;
+        try {
+            studentId = scopedStudentId(authentication);
         } catch (Exception e) {
-            // Return default values if calculation fails
-            stats.put("totalCourses", 0);
-            stats.put("totalStudents", 0);
-            stats.put("totalEnrollments", 0);
-            stats.put("completionRate", 0);
-            stats.put("averageGrade", 0);
-            stats.put("courseGrowth", "+0%");
-            stats.put("studentGrowth", "+0%");
-            stats.put("enrollmentGrowth", "+0%");
-            stats.put("completionGrowth", "+0%");
+            return emptySummary();
         }
-        
-        return stats;
+        return summary(studentId);
     }
 
-    public List<Map<String, Object>> getRecentActivity(Authentication authentication) {
-        List<Map<String, Object>> activities = new ArrayList<>();
-        
-        try {
-            LocalDate lastWeek = LocalDate.now().minusWeeks(1);
-            
-            // Get recent courses
-            List<Course> recentCourses = courseRepository.findAll().stream()
-                    .filter(c -> c.getCreatedDate() != null && c.getCreatedDate().isAfter(lastWeek))
-                    .sorted((c1, c2) -> c2.getCreatedDate().compareTo(c1.getCreatedDate()))
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // Get recent students
-            List<Student> recentStudents = studentService.getAllStudentsBasedOnRole(authentication).stream()
-                    .filter(s -> s.getEnrollmentDate() != null && s.getEnrollmentDate().isAfter(lastWeek))
-                    .sorted((s1, s2) -> s2.getEnrollmentDate().compareTo(s1.getEnrollmentDate()))
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // Get recent enrollments
-            List<Enrollment> recentEnrollments = enrollmentService.getAllEnrollmentsBasedOnRole(authentication).stream()
-                    .filter(e -> e.getEnrollmentDate() != null && e.getEnrollmentDate().isAfter(lastWeek))
-                    .sorted((e1, e2) -> e2.getEnrollmentDate().compareTo(e1.getEnrollmentDate()))
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // Add course activities
-            for (Course course : recentCourses) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "course");
-                activity.put("icon", "new-course");
-                activity.put("text", "New course \"" + course.getTitle() + "\" added");
-                activity.put("time", getRelativeTime(course.getCreatedDate()));
-                activities.add(activity);
-            }
-
-            // Add student activities
-            if (!recentStudents.isEmpty()) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "student");
-                activity.put("icon", "new-student");
-                activity.put("text", recentStudents.size() + " new student" + (recentStudents.size() > 1 ? "s" : "") + " enrolled this week");
-                activity.put("time", "This week");
-                activities.add(activity);
-            }
-
-            // Add enrollment activities
-            if (!recentEnrollments.isEmpty()) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("type", "enrollment");
-                activity.put("icon", "enrollment");
-                activity.put("text", recentEnrollments.size() + " course enrollment" + (recentEnrollments.size() > 1 ? "s" : "") + " completed");
-                activity.put("time", "This week");
-                activities.add(activity);
-            }
-
-            // Sort activities by most recent
-            activities.sort((a1, a2) -> {
-                String time1 = (String) a1.get("time");
-                String time2 = (String) a2.get("time");
-                // Simple sorting - more recent activities first
-                if (time1.contains("hour") && time2.contains("day")) return -1;
-                if (time1.contains("day") && time2.contains("hour")) return 1;
-                return 0;
-            });
+    // Whether the caller gets the staff summary, which is the same for every staff caller
+    public boolean seesStaffSummary(Authentication authentication) {
+        return enrollmentService.hasAdminOrStaffRole(authentication);
+    }
 
+    // The summary over all students, as staff see it
+    public DashboardSummary getStaffSummary() {
+        return summary(null);
+    }
+
+    // The summary over one student's enrollments, or over all of them when studentId is null
+    private DashboardSummary summary(Long studentId) {
+        DashboardCounters.Totals totals;
+        try {
+            totals = enrollmentTotals(studentId);
         } catch (Exception e) {
-            // Return default activities if calculation fails
-            Map<String, Object> defaultActivity = new HashMap<>();
-            defaultActivity.put("type", "system");
-            defaultActivity.put("icon", "new-course");
-            defaultActivity.put("text", "System initialized");
-            defaultActivity.put("time", "Recently");
-            activities.add(defaultActivity);
+            return emptySummary();
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<String, Long> departmentCounts = dashboardCounters.departmentCourseCounts();
+
+        CompletableFuture<DashboardSummary.Stats> stats = CompletableFuture
+                .supplyAsync(() -> buildStats(studentId, totals, departmentCounts, today), dashboardExecutor)
+                .exceptionally(e -> DashboardSummary.Stats.empty());
+        CompletableFuture<List<DashboardSummary.Activity>> activity = CompletableFuture
+                .supplyAsync(() -> buildRecentActivity(studentId, today), dashboardExecutor)
+                .exceptionally(e -> List.of(defaultActivity()));
+
+        return new DashboardSummary(
+                stats.join(),
+                activity.join(),
+                buildEnrollmentStats(totals),
+                buildDepartmentSlices(departmentCounts),
+                buildPerformanceMetrics(totals));
+    }
+
+    private DashboardSummary.Stats buildStats(Long studentId, DashboardCounters.Totals totals,
+                                              Map<String, Long> departmentCounts, LocalDate today) {
+        LocalDate lastMonth = today.minusMonths(1);
+
+        // Calculate basic stats
+        long totalCourses = departmentCounts.values().stream().mapToLong(Long::longValue).sum();
+        long totalStudents = studentRepository.count();
+        long totalEnrollments = totals.getTotal();
+
+        // Calculate completion rate
+        long completedEnrollments = totals.count(Enrollment.EnrollmentStatus.COMPLETED);
+        double completionRate = totalEnrollments > 0 ?
+                (double) completedEnrollments / totalEnrollments * 100 : 0;
+
+        // Calculate growth rates (comparing with last month's data)
+        long recentCourses = courseRepository.countCreatedBetween(lastMonth, today);
+        double courseGrowth = totalCourses > 0 ? (double) recentCourses / totalCourses * 100 : 0;
+
+        long recentStudents = studentRepository.countRegisteredBetween(lastMonth, today);
+        double studentGrowth = totalStudents > 0 ? (double) recentStudents / totalStudents * 100 : 0;
+
+        long recentEnrollments = countEnrolledBetween(studentId, lastMonth, today);
+        double enrollmentGrowth = totalEnrollments > 0 ? (double) recentEnrollments / totalEnrollments * 100 : 0;
+
+        return new DashboardSummary.Stats(
+                totalCourses,
+                totalStudents,
+                totalEnrollments,
+                round1(completionRate),
+                totals.getGraded() > 0 ? round1(totals.getAverageScore()) : 0,
+                "+" + round1(courseGrowth) + "%",
+                "+" + round1(studentGrowth) + "%",
+                "+" + round1(enrollmentGrowth) + "%",
+                "+2.3%"); // This could be calculated based on historical data
+    }
+
+    private List<DashboardSummary.Activity> buildRecentActivity(Long studentId, LocalDate today) {
+        List<DashboardSummary.Activity> activities = new ArrayList<>();
+        LocalDate lastWeek = today.minusWeeks(1);
+
+        List<RecentCourse> recentCourses = courseRepository.findRecentCourses(lastWeek, PageRequest.of(0, 3));
+        long recentStudents = studentRepository.countRegisteredBetween(lastWeek, today);
+        long recentEnrollments = countEnrolledBetween(studentId, lastWeek, today);
+
+        // Add course activities
+        for (RecentCourse course : recentCourses) {
+            activities.add(new DashboardSummary.Activity("course", "new-course",
+                    "New course \"" + course.title() + "\" added", getRelativeTime(course.createdDate())));
+        }
+
+        // Add student activities
+        if (recentStudents > 0) {
+            activities.add(new DashboardSummary.Activity("student", "new-student",
+                    recentStudents + " new student" + (recentStudents > 1 ? "s" : "") + " enrolled this week", "This week"));
+        }
+
+        // Add enrollment activities
+        if (recentEnrollments > 0) {
+            activities.add(new DashboardSummary.Activity("enrollment", "enrollment",
+                    recentEnrollments + " course enrollment" + (recentEnrollments > 1 ? "s" : "") + " completed", "This week"));
         }
-        
+
         return activities.stream().limit(5).collect(Collectors.toList());
     }
 
-    public Map<String, Object> getEnrollmentStats(Authentication authentication) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            List<Enrollment> enrollments = enrollmentService.getAllEnrollmentsBasedOnRole(authentication);
-            
-            long activeCount = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.ENROLLED)
-                    .count();
-            
-            long completedCount = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.COMPLETED)
-                    .count();
-            
-            long pendingCount = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.PENDING)
-                    .count();
-            
-            long droppedCount = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.DROPPED)
-                    .count();
-            
-            stats.put("active", activeCount);
-            stats.put("completed", completedCount);
-            stats.put("pending", pendingCount);
-            stats.put("dropped", droppedCount);
-            stats.put("total", enrollments.size());
-            
-        } catch (Exception e) {
-            stats.put("active", 0);
-            stats.put("completed", 0);
-            stats.put("pending", 0);
-            stats.put("dropped", 0);
-            stats.put("total", 0);
+    private DashboardSummary.EnrollmentStats buildEnrollmentStats(DashboardCounters.Totals totals) {
+        return new DashboardSummary.EnrollmentStats(
+                totals.count(Enrollment.EnrollmentStatus.ENROLLED),
+                totals.count(Enrollment.EnrollmentStatus.COMPLETED),
+                totals.count(Enrollment.EnrollmentStatus.PENDING),
+                totals.count(Enrollment.EnrollmentStatus.DROPPED),
+                totals.getTotal());
+    }
+
+    private List<DashboardSummary.DepartmentSlice> buildDepartmentSlices(Map<String, Long> departmentCounts) {
+        return departmentCounts.entrySet().stream()
+                .map(entry -> new DashboardSummary.DepartmentSlice(entry.getKey(), entry.getValue()))
+                .sorted((d1, d2) -> Long.compare(d2.count(), d1.count()))
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    private DashboardSummary.PerformanceMetrics buildPerformanceMetrics(DashboardCounters.Totals totals) {
+        // Calculate pass rate (assuming grade >= 60 is passing)
+        long passedEnrollments = totals.getPassed();
+        long gradedEnrollments = totals.getGraded();
+
+        double passRate = gradedEnrollments > 0 ? (double) passedEnrollments / gradedEnrollments * 100 : 0;
+
+        // Calculate retention rate (students who didn't drop)
+        long notDropped = totals.getTotal() - totals.count(Enrollment.EnrollmentStatus.DROPPED);
+
+        double retentionRate = totals.getTotal() > 0 ? (double) notDropped / totals.getTotal() * 100 : 0;
+
+        return new DashboardSummary.PerformanceMetrics(round1(passRate), round1(retentionRate));
+    }
+
+    private DashboardSummary emptySummary() {
+        return new DashboardSummary(
+                DashboardSummary.Stats.empty(),
+                List.of(defaultActivity()),
+                DashboardSummary.EnrollmentStats.empty(),
+                new ArrayList<>(),
+                DashboardSummary.PerformanceMetrics.empty());
+    }
+
+    // Shown when the activity feed cannot be calculated
+    private DashboardSummary.Activity defaultActivity() {
+        return new DashboardSummary.Activity("system", "new-course", "System initialized", "Recently");
+    }
+
+    // Null for staff (all enrollments), the caller's student id for students
+    private Long scopedStudentId(Authentication authentication) {
+        if (enrollmentService.hasAdminOrStaffRole(authentication)) {
+            return null;
+        } else if (enrollmentService.hasStudentRole(authentication)) {
+            return enrollmentService.ownStudentId(authentication);
+        } else {
+            throw new RuntimeException("Access denied: Insufficient privileges");
         }
-        
-        return stats;
     }
 
-    public List<Map<String, Object>> getCoursesByDepartment(Authentication authentication) {
-        try {
-            List<Course> courses = courseRepository.findAll();
-            
-            Map<String, Long> departmentCounts = courses.stream()
-                    .collect(Collectors.groupingBy(
-                            course -> course.getDepartment() != null ? course.getDepartment() : "Unknown",
-                            Collectors.counting()
-                    ));
-            
-            return departmentCounts.entrySet().stream()
-                    .map(entry -> {
-                        Map<String, Object> dept = new HashMap<>();
-                        dept.put("dept", entry.getKey());
-                        dept.put("count", entry.getValue());
-                        return dept;
-                    })
-                    .sorted((d1, d2) -> Long.compare((Long) d2.get("count"), (Long) d1.get("count")))
-                    .limit(10)
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            return new ArrayList<>();
+    // Staff read the maintained counters; students get SQL aggregates over their own rows
+    private DashboardCounters.Totals enrollmentTotals(Long studentId) {
+        if (studentId == null) {
+            return dashboardCounters.snapshot();
         }
+        return DashboardCounters.Totals.of(
+                enrollmentRepository.countGroupedByStatusForStudent(studentId),
+                enrollmentRepository.summarizeScoresForStudent(studentId, DashboardCounters.PASSING_SCORE));
     }
 
-    public Map<String, Object> getPerformanceMetrics(Authentication authentication) {
-        Map<String, Object> metrics = new HashMap<>();
-        
-        try {
-            List<Enrollment> enrollments = enrollmentService.getAllEnrollmentsBasedOnRole(authentication);
-            
-            // Calculate pass rate (assuming grade >= 60 is passing)
-            long passedEnrollments = enrollments.stream()
-                    .filter(e -> e.getScore() != null && e.getScore() >= 60)
-                    .count();
-            
-            long gradedEnrollments = enrollments.stream()
-                    .filter(e -> e.getScore() != null && e.getScore() > 0)
-                    .count();
-            
-            double passRate = gradedEnrollments > 0 ? (double) passedEnrollments / gradedEnrollments * 100 : 0;
-            
-            // Calculate retention rate (students who didn't drop)
-            long notDropped = enrollments.stream()
-                    .filter(e -> e.getStatus() != Enrollment.EnrollmentStatus.DROPPED)
-                    .count();
-            
-            double retentionRate = enrollments.size() > 0 ? (double) notDropped / enrollments.size() * 100 : 0;
-            
-            metrics.put("passRate", Math.round(passRate * 10.0) / 10.0);
-            metrics.put("retentionRate", Math.round(retentionRate * 10.0) / 10.0);
-            
-        } catch (Exception e) {
-            metrics.put("passRate", 0);
-            metrics.put("retentionRate", 0);
+    private long countEnrolledBetween(Long studentId, LocalDate from, LocalDate to) {
+        if (studentId == null) {
+            return enrollmentRepository.countEnrolledBetween(from, to);
         }
-        
-        return metrics;
+        return enrollmentRepository.countEnrolledBetweenForStudent(studentId, from, to);
+    }
+
+    // Rebuild the counters from the database on demand
+    public DashboardCounters.Totals rebuildCounters() {
+        return dashboardCounters.rebuild();
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
     }
 
     private String getRelativeTime(LocalDate date) {
         if (date == null) return "Unknown";
-        
+
         LocalDate now = LocalDate.now();
         long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(date, now);
-        
+
         if (daysDiff == 0) return "Today";
         if (daysDiff == 1) return "Yesterday";
         if (daysDiff < 7) return daysDiff + " days ago";
         if (daysDiff < 30) return (daysDiff / 7) + " week" + (daysDiff / 7 > 1 ? "s" : "") + " ago";
         if (daysDiff < 365) return (daysDiff / 30) + " month" + (daysDiff / 30 > 1 ? "s" : "") + " ago";
-        
+
         return (daysDiff / 365) + " year" + (daysDiff / 365 > 1 ? "s" : "") + " ago";
     }
 }
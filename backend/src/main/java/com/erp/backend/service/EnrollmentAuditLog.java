@@ -0,0 +1,170 @@
+package com.erp.backend.service;
+
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.repository.EnrollmentEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind log of enrollment changes. A write records its event once its transaction has
+// committed, into an in-memory ring that producers fill without locking; a scheduled flusher
+// drains the ring and inserts the events in batches. Recording therefore adds a ring offer to
+// the write path, not a round trip. Events still in the ring are written on shutdown. If the
+// flusher falls so far behind that the ring fills up, the recording thread writes a batch
+// itself rather than drop the event.
+@Component
+public class EnrollmentAuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentAuditLog.class);
+
+    static final String SYSTEM_ACTOR = "system";
+
+    @Autowired
+    private EnrollmentEventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EnrollmentHistoryStore historyStore;
+
+    @Value("${audit.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:500}")
+    private int batchSize;
+
+    private MpscRingBuffer<EnrollmentEvent> buffer;
+
+    // Held while writing. A lock rather than a monitor, so a virtual thread that writes is not
+    // pinned to its carrier for the length of the insert.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // A drained batch that failed to insert; retried first on the next flush. Guarded by flushLock.
+    private final List<EnrollmentEvent> unwritten = new ArrayList<>();
+
+    private Counter written;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        buffer = new MpscRingBuffer<>(Integer.highestOneBit(Math.max(bufferSize, 2) * 2 - 1));
+        written = Counter.builder("enrollment.audit.events").tag("outcome", "written").register(meterRegistry);
+        dropped = Counter.builder("enrollment.audit.events").tag("outcome", "dropped").register(meterRegistry);
+        Gauge.builder("enrollment.audit.buffered", buffer, MpscRingBuffer::size)
+                .description("Enrollment events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    // Record a change to the enrollment, now holding its new values; previous* are the values
+    // before the change (all null for a creation)
+    public void record(EnrollmentEvent.Type type, Enrollment enrollment, Enrollment.EnrollmentStatus previousStatus,
+                       String previousGrade, Double previousScore) {
+        EnrollmentEvent event = new EnrollmentEvent(type, enrollment, previousStatus, previousGrade, previousScore,
+                currentActor(), Instant.now());
+        AfterCommit.run(() -> enqueue(event));
+    }
+
+    // Record several events from one transaction (bulk import)
+    public void recordAll(List<EnrollmentEvent> events) {
+        if (!events.isEmpty()) {
+            AfterCommit.run(() -> events.forEach(this::enqueue));
+        }
+    }
+
+    public static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : SYSTEM_ACTOR;
+    }
+
+    private void enqueue(EnrollmentEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+        // The ring is full: help drain it unless a flush is already running (then the request
+        // does not wait behind it), and try once more
+        if (flushLock.tryLock()) {
+            try {
+                writeBuffered();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            log.error("Enrollment audit buffer full, event lost: {} on enrollment {}", event.getType(), event.getEnrollmentId());
+        }
+    }
+
+    // Write everything buffered so far, a batch per transaction
+    @Scheduled(fixedDelayString = "${audit.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            writeBuffered();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBuffered() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Its own transaction: flush also runs from afterCommit callbacks and inside read-only replays
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        while (true) {
+            if (unwritten.isEmpty() && buffer.drain(unwritten::add, batchSize) == 0) {
+                return;
+            }
+            try {
+                transaction.executeWithoutResult(status -> eventRepository.saveAll(unwritten));
+            } catch (RuntimeException e) {
+                // Keep the batch (and leave the rest in the ring) until the next attempt
+                log.warn("Writing {} enrollment events failed: {}", unwritten.size(), e.getMessage());
+                unwritten.forEach(event -> event.setId(null));
+                return;
+            }
+            written.increment(unwritten.size());
+            try {
+                historyStore.append(unwritten);
+            } catch (RuntimeException e) {
+                // The events are safe in the table; the history store reads them from there on its next append
+                log.error("Appending {} enrollment events to the history store failed: {}", unwritten.size(), e.getMessage());
+            }
+            boolean more = unwritten.size() == batchSize;
+            unwritten.clear();
+            if (!more) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+        if (!unwritten.isEmpty() || buffer.size() > 0) {
+            log.error("{} enrollment events could not be written before shutdown", unwritten.size() + buffer.size());
+        }
+    }
+}
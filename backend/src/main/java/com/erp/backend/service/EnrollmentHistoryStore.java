@@ -0,0 +1,445 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.HistoryStats;
+import com.erp.backend.dto.TermSummary;
+import com.erp.backend.dto.TranscriptEntry;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.repository.EnrollmentEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Embedded, append-only history of enrollment states for transcripts and term-over-term
+// analytics, kept in memory-mapped segment files (see HistorySegment) so these reads never
+// touch the enrollment tables. Every change the audit log writes is appended here as a new
+// version of its enrollment; a read keeps the highest version of each enrollment it finds.
+// Segments are filled one at a time; full ones are sealed, and once enough have piled up a
+// background pass merges them, keeping only each enrollment's latest version. The id of the last
+// audit event appended is kept in the segment headers; on start, and after an append fails, the
+// store catches up from the audit log table after that id (on first start, the whole log).
+@Component
+public class EnrollmentHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentHistoryStore.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int CATCH_UP_BATCH = 1000;
+    private static final Enrollment.EnrollmentStatus[] STATUSES = Enrollment.EnrollmentStatus.values();
+
+    @Autowired
+    private EnrollmentEventRepository eventRepository;
+
+    @Value("${history.dir:data/enrollment-history}")
+    private String directory;
+
+    @Value("${history.segment-records:262144}")
+    private int segmentRecords;
+
+    @Value("${history.compaction.min-segments:4}")
+    private int compactionMinSegments;
+
+    // Oldest first; the last one is the segment being appended to. Replaced, never modified.
+    private volatile List<HistorySegment> segments = List.of();
+    private Path dir;
+
+    // Guards appends and segment list changes
+    private final Object writeLock = new Object();
+    // One compaction at a time
+    private final Object compactionLock = new Object();
+    private long nextVersion = 1;
+    // Highest audit event id appended so far, and whether events after it may have been missed
+    private long lastEventId;
+    private boolean behind;
+
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reclaimedRecords = new AtomicLong();
+
+    // Where a record lives, and its version
+    private record Location(HistorySegment segment, int index, long version) {
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        dir = Path.of(directory);
+        Files.createDirectories(dir);
+        List<HistorySegment> opened = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // An unfinished compaction; its inputs are still in place
+                    Files.delete(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    opened.add(HistorySegment.open(file));
+                }
+            }
+        }
+        opened.sort(Comparator.comparingLong(HistorySegment::firstVersion).thenComparingInt(HistorySegment::generation));
+        for (HistorySegment segment : opened) {
+            lastEventId = Math.max(lastEventId, segment.lastEventId());
+            if (segment.count() > 0) {
+                nextVersion = Math.max(nextVersion, segment.version(segment.count() - 1) + 1);
+            }
+            nextVersion = Math.max(nextVersion, segment.firstVersion());
+        }
+        if (opened.isEmpty() || opened.get(opened.size() - 1).isFull()) {
+            opened.add(newSegment(nextVersion, 0));
+        }
+        segments = List.copyOf(opened);
+        log.info("Opened enrollment history in {}: {} segments, {} records, up to audit event {}",
+                dir.toAbsolutePath(), segments.size(), records(), lastEventId);
+        synchronized (writeLock) {
+            try {
+                catchUp();
+            } catch (RuntimeException e) {
+                // Tried again on the next append
+                behind = true;
+                log.warn("Catching up the enrollment history from the audit log failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (writeLock) {
+            for (HistorySegment segment : segments) {
+                try {
+                    segment.force();
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("Closing history segment {} failed: {}", segment.file(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Append the enrollment state each written event leaves behind. Events already appended are
+    // skipped. If an earlier append failed, the store reads everything it missed (these events
+    // included) from the audit log table instead; if this one fails, the next one does.
+    public void append(List<EnrollmentEvent> events) {
+        synchronized (writeLock) {
+            try {
+                if (behind) {
+                    catchUp();
+                } else {
+                    write(events);
+                }
+            } catch (RuntimeException e) {
+                behind = true;
+                throw e;
+            }
+        }
+    }
+
+    // Caller holds writeLock; events in id order
+    private void write(List<EnrollmentEvent> events) {
+        for (EnrollmentEvent event : events) {
+            if (event.getId() <= lastEventId) {
+                continue;
+            }
+            HistorySegment active = segments.get(segments.size() - 1);
+            if (active.isFull()) {
+                active = roll(active);
+            }
+            active.append(nextVersion++, event.getEnrollmentId(), id(event.getStudentId()), id(event.getCourseId()),
+                    event.getOccurredAt().toEpochMilli(), day(event.getEnrollmentDate()), day(event.getCompletionDate()),
+                    event.getScore() != null ? event.getScore().floatValue() : Float.NaN,
+                    event.getStatus() != null ? (byte) event.getStatus().ordinal() : -1,
+                    event.getType() == EnrollmentEvent.Type.DELETED ? HistorySegment.DELETED : 0,
+                    packGrade(event.getGrade()));
+            lastEventId = event.getId();
+            active.lastEventId(lastEventId);
+        }
+    }
+
+    // Caller holds writeLock. Appends the audit log after lastEventId, a batch at a time.
+    private void catchUp() {
+        long loaded = 0;
+        List<EnrollmentEvent> batch;
+        do {
+            batch = eventRepository.findByIdGreaterThanOrderByIdAsc(lastEventId, PageRequest.of(0, CATCH_UP_BATCH));
+            write(batch);
+            loaded += batch.size();
+        } while (batch.size() == CATCH_UP_BATCH);
+        behind = false;
+        if (loaded > 0) {
+            log.info("Appended {} events from the audit log to the enrollment history", loaded);
+        }
+    }
+
+    // The student's enrollments (by Student primary key) in their latest state, oldest first
+    public List<TranscriptEntry> transcript(Long studentId) {
+        List<TranscriptEntry> entries = new ArrayList<>();
+        for (Location location : latest(studentId, true).values()) {
+            HistorySegment segment = location.segment();
+            int i = location.index();
+            entries.add(new TranscriptEntry(segment.enrollmentId(i), segment.courseId(i), status(segment.status(i)),
+                    unpackGrade(segment.grade(i)), score(segment.score(i)), date(segment.enrollmentDay(i)),
+                    date(segment.completionDay(i))));
+        }
+        entries.sort(Comparator.comparing(TranscriptEntry::enrollmentDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TranscriptEntry::enrollmentId));
+        return entries;
+    }
+
+    // The course's enrollments in their latest state, grouped by the term they started in
+    public List<TermSummary> courseTerms(Long courseId) {
+        // key: year * 4 + season index, so keys sort chronologically
+        SortedMap<Integer, int[]> counts = new TreeMap<>();
+        Map<Integer, double[]> scores = new HashMap<>();
+        for (Location location : latest(courseId, false).values()) {
+            HistorySegment segment = location.segment();
+            int i = location.index();
+            int day = segment.enrollmentDay(i);
+            if (day == HistorySegment.NO_DAY) {
+                continue;
+            }
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int key = date.getYear() * 4 + season(date.getMonthValue());
+            int[] count = counts.computeIfAbsent(key, k -> new int[3]);
+            count[0]++;
+            byte status = segment.status(i);
+            if (status == Enrollment.EnrollmentStatus.COMPLETED.ordinal()) {
+                count[1]++;
+            } else if (status == Enrollment.EnrollmentStatus.DROPPED.ordinal()) {
+                count[2]++;
+            }
+            float score = segment.score(i);
+            if (!Float.isNaN(score)) {
+                double[] sum = scores.computeIfAbsent(key, k -> new double[2]);
+                sum[0] += score;
+                sum[1]++;
+            }
+        }
+        List<TermSummary> terms = new ArrayList<>();
+        counts.forEach((key, count) -> {
+            double[] sum = scores.get(key);
+            Double average = sum != null ? Math.round(sum[0] / sum[1] * 100.0) / 100.0 : null;
+            terms.add(new TermSummary(key / 4, SEASONS[key % 4], count[0], count[1], count[2], average));
+        });
+        return terms;
+    }
+
+    public HistoryStats stats() {
+        List<HistorySegment> current = segments;
+        long fileBytes = current.stream().mapToLong(HistorySegment::fileSize).sum();
+        long version;
+        synchronized (writeLock) {
+            version = nextVersion;
+        }
+        return new HistoryStats(current.size(), records(), fileBytes, version, compactions.get(), reclaimedRecords.get());
+    }
+
+    // Flush appended records to disk; a crash of the process loses nothing, this covers the machine
+    @Scheduled(fixedDelayString = "${history.sync-interval-ms:1000}")
+    public void sync() {
+        List<HistorySegment> current = segments;
+        current.get(current.size() - 1).force();
+    }
+
+    // Merge the sealed segments once there are enough of them, dropping every record that a
+    // later version of its enrollment supersedes and every enrollment whose latest version is a
+    // deletion. Readers keep using the old files until they pick up the new segment list.
+    @Scheduled(initialDelayString = "${history.compaction.interval-ms:600000}",
+               fixedDelayString = "${history.compaction.interval-ms:600000}")
+    public void compact() {
+        synchronized (compactionLock) {
+            List<HistorySegment> snapshot = segments;
+            List<HistorySegment> sealed = snapshot.subList(0, snapshot.size() - 1);
+            if (sealed.size() < compactionMinSegments) {
+                return;
+            }
+
+            // The latest version of every enrollment, the segment being appended to included
+            Map<Long, Long> latest = new HashMap<>();
+            for (HistorySegment segment : snapshot) {
+                int count = segment.count();
+                for (int i = 0; i < count; i++) {
+                    latest.merge(segment.enrollmentId(i), segment.version(i), Math::max);
+                }
+            }
+
+            int generation = 1 + sealed.stream().mapToInt(HistorySegment::generation).max().orElse(0);
+            List<HistorySegment> merged = new ArrayList<>();
+            Set<Long> kept = new HashSet<>();
+            long dropped = 0;
+            try {
+                HistorySegment output = null;
+                for (HistorySegment segment : sealed) {
+                    for (int i = 0; i < segment.count(); i++) {
+                        long enrollmentId = segment.enrollmentId(i);
+                        // The latest version survives, once (a copy left by an interrupted compaction is dropped)
+                        if (segment.version(i) != latest.get(enrollmentId) || segment.isDeleted(i) || !kept.add(enrollmentId)) {
+                            dropped++;
+                            continue;
+                        }
+                        if (output == null || output.isFull()) {
+                            output = HistorySegment.create(
+                                    dir.resolve(HistorySegment.fileName(segment.version(i), generation) + TEMP_SUFFIX),
+                                    segment.version(i), generation, segmentRecords);
+                            merged.add(output);
+                        }
+                        output.copy(segment, i);
+                    }
+                }
+                long sealedLastEventId = sealed.stream().mapToLong(HistorySegment::lastEventId).max().orElse(0);
+                for (HistorySegment segment : merged) {
+                    segment.lastEventId(sealedLastEventId);
+                }
+                if (dropped == 0) {
+                    discard(merged);
+                    return;
+                }
+                for (HistorySegment segment : merged) {
+                    segment.force();
+                    String name = segment.file().getFileName().toString();
+                    segment.moveTo(dir.resolve(name.substring(0, name.length() - TEMP_SUFFIX.length())));
+                }
+            } catch (IOException e) {
+                log.warn("Compacting enrollment history failed: {}", e.getMessage());
+                discard(merged);
+                return;
+            }
+
+            synchronized (writeLock) {
+                // Appends only ever add segments after the sealed ones
+                List<HistorySegment> current = segments;
+                List<HistorySegment> next = new ArrayList<>(merged);
+                next.addAll(current.subList(sealed.size(), current.size()));
+                segments = List.copyOf(next);
+            }
+            for (HistorySegment segment : sealed) {
+                try {
+                    segment.close();
+                    Files.deleteIfExists(segment.file());
+                } catch (IOException e) {
+                    log.warn("Removing compacted history segment {} failed: {}", segment.file(), e.getMessage());
+                }
+            }
+            compactions.incrementAndGet();
+            reclaimedRecords.addAndGet(dropped);
+            log.info("Compacted {} history segments into {}, dropping {} superseded records", sealed.size(), merged.size(), dropped);
+        }
+    }
+
+    // Highest version of each enrollment among the records the index lists for the student or
+    // course; enrollments whose latest version is a deletion are left out
+    private Map<Long, Location> latest(long id, boolean byStudent) {
+        Map<Long, Location> latest = new HashMap<>();
+        for (HistorySegment segment : segments) {
+            int count = segment.count();
+            for (int block : byStudent ? segment.studentBlocks(id) : segment.courseBlocks(id)) {
+                int end = Math.min(count, (block + 1) * HistorySegment.BLOCK_RECORDS);
+                for (int i = block * HistorySegment.BLOCK_RECORDS; i < end; i++) {
+                    if ((byStudent ? segment.studentId(i) : segment.courseId(i)) != id) {
+                        continue;
+                    }
+                    long version = segment.version(i);
+                    Location seen = latest.get(segment.enrollmentId(i));
+                    if (seen == null || seen.version() < version) {
+                        latest.put(segment.enrollmentId(i), new Location(segment, i, version));
+                    }
+                }
+            }
+        }
+        latest.values().removeIf(location -> location.segment().isDeleted(location.index()));
+        return latest;
+    }
+
+    private HistorySegment roll(HistorySegment full) {
+        full.force();
+        HistorySegment next = newSegment(nextVersion, 0);
+        next.lastEventId(lastEventId);
+        List<HistorySegment> grown = new ArrayList<>(segments);
+        grown.add(next);
+        segments = List.copyOf(grown);
+        return next;
+    }
+
+    private HistorySegment newSegment(long firstVersion, int generation) {
+        try {
+            return HistorySegment.create(dir.resolve(HistorySegment.fileName(firstVersion, generation)),
+                    firstVersion, generation, segmentRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create history segment in " + dir, e);
+        }
+    }
+
+    private void discard(List<HistorySegment> unused) {
+        for (HistorySegment segment : unused) {
+            try {
+                segment.close();
+                Files.deleteIfExists(segment.file());
+            } catch (IOException e) {
+                log.warn("Removing unused history segment {} failed: {}", segment.file(), e.getMessage());
+            }
+        }
+    }
+
+    private long records() {
+        return segments.stream().mapToLong(HistorySegment::count).sum();
+    }
+
+    private static final String[] SEASONS = {"Spring", "Summer", "Fall", "Fall"};
+
+    // 0 Spring (January to May), 1 Summer (June to August), 2 Fall (September to December)
+    private static int season(int month) {
+        return month <= 5 ? 0 : month <= 8 ? 1 : 2;
+    }
+
+    private static long id(Long id) {
+        return id != null ? id : 0;
+    }
+
+    private static int day(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : HistorySegment.NO_DAY;
+    }
+
+    private static LocalDate date(int day) {
+        return day != HistorySegment.NO_DAY ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    private static Double score(float score) {
+        return Float.isNaN(score) ? null : (double) score;
+    }
+
+    private static Enrollment.EnrollmentStatus status(byte ordinal) {
+        return ordinal >= 0 && ordinal < STATUSES.length ? STATUSES[ordinal] : null;
+    }
+
+    // Letter grades fit in two ASCII characters ("A", "B+"); anything longer is cut to two
+    static short packGrade(String grade) {
+        if (grade == null || grade.isEmpty()) {
+            return 0;
+        }
+        int first = grade.charAt(0) & 0xFF;
+        int second = grade.length() > 1 ? grade.charAt(1) & 0xFF : 0;
+        return (short) (first << 8 | second);
+    }
+
+    static String unpackGrade(short packed) {
+        if (packed == 0) {
+            return null;
+        }
+        char first = (char) ((packed >> 8) & 0xFF);
+        char second = (char) (packed & 0xFF);
+        return second == 0 ? String.valueOf(first) : "" + first + second;
+    }
+}
@@ -0,0 +1,326 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.EnrollmentImportRow;
+import com.erp.backend.dto.EnrollmentKey;
+import com.erp.backend.dto.ImportResult;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk enrollment import. Each chunk of rows resolves its students and courses with two IN
+// queries, dedupes against existing enrollments with one more, claims seats with one update per
+// course, and inserts the remaining rows through JDBC batching in its own transaction, so one bad
+// chunk does not undo the others.
+@Service
+public class EnrollmentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentImportService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private SeatAllocator seatAllocator;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ImportResult importEnrollments(List<EnrollmentImportRow> rows) {
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Pairs imported so far, to catch the same pair appearing twice in one upload
+        Set<EnrollmentKey> imported = new HashSet<>();
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        int importedCount = 0;
+        int duplicates = 0;
+        int waitlisted = 0;
+        int failed = 0;
+
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<EnrollmentImportRow> chunk = rows.subList(from, Math.min(rows.size(), from + chunkSize));
+            int firstRow = from + 1;
+            ChunkOutcome outcome;
+            try {
+                outcome = transaction.execute(status -> importChunk(chunk, firstRow, imported));
+            } catch (RuntimeException e) {
+                // The whole chunk was rolled back
+                log.warn("Enrollment import rows {}-{} failed: {}", firstRow, firstRow + chunk.size() - 1, e.getMessage());
+                outcome = ChunkOutcome.failed(chunk.size(), firstRow, "Batch rolled back: " + e.getMessage());
+            }
+
+            imported.addAll(outcome.inserted);
+            importedCount += outcome.inserted.size();
+            duplicates += outcome.duplicates;
+            waitlisted += outcome.waitlisted;
+            failed += outcome.errors.size();
+            for (ImportResult.RowError error : outcome.errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        double rowsPerSecond = elapsedMs > 0 ? Math.round(rows.size() * 1000.0 / elapsedMs * 10.0) / 10.0 : rows.size();
+        log.info("Imported {} of {} enrollments ({} duplicates, {} failed) in {} ms",
+                importedCount, rows.size(), duplicates, failed, elapsedMs);
+        return new ImportResult(rows.size(), importedCount, waitlisted, duplicates, failed, errors, elapsedMs, rowsPerSecond);
+    }
+
+    private ChunkOutcome importChunk(List<EnrollmentImportRow> chunk, int firstRow, Set<EnrollmentKey> alreadyImported) {
+        ChunkOutcome outcome = new ChunkOutcome();
+
+        Map<String, Student> students = studentRepository.findByStudentIdIn(distinct(chunk, EnrollmentImportRow::getStudentId))
+                .stream().collect(Collectors.toMap(Student::getStudentId, s -> s));
+        Map<String, Course> courses = courseRepository.findByCodeIn(distinct(chunk, EnrollmentImportRow::getCourseCode))
+                .stream().collect(Collectors.toMap(Course::getCode, c -> c));
+
+        Set<EnrollmentKey> existing = students.isEmpty() || courses.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(enrollmentRepository.findExistingKeys(
+                        students.values().stream().map(Student::getId).toList(),
+                        courses.values().stream().map(Course::getId).toList()));
+
+        List<Enrollment> accepted = new ArrayList<>();
+        Map<Long, Integer> seatsWanted = new HashMap<>();
+        Map<Enrollment.EnrollmentStatus, Long> addedByStatus = new EnumMap<>(Enrollment.EnrollmentStatus.class);
+        LocalDate today = LocalDate.now();
+        List<EnrollmentEvent> events = new ArrayList<>();
+        String actor = EnrollmentAuditLog.currentActor();
+        Instant now = Instant.now();
+        int pending = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+            EnrollmentImportRow row = chunk.get(i);
+            int rowNumber = firstRow + i;
+
+            String studentId = trim(row.getStudentId());
+            String courseCode = trim(row.getCourseCode());
+            if (studentId == null || courseCode == null) {
+                outcome.error(rowNumber, "studentId and courseCode are required");
+                continue;
+            }
+            Student student = students.get(studentId);
+            if (student == null) {
+                outcome.error(rowNumber, "Student not found: " + studentId);
+                continue;
+            }
+            Course course = courses.get(courseCode);
+            if (course == null) {
+                outcome.error(rowNumber, "Course not found: " + courseCode);
+                continue;
+            }
+            Enrollment.EnrollmentStatus status;
+            try {
+                status = parseStatus(row.getStatus());
+            } catch (IllegalArgumentException e) {
+                outcome.error(rowNumber, "Unknown status: " + row.getStatus());
+                continue;
+            }
+
+            EnrollmentKey key = new EnrollmentKey(student.getId(), course.getId());
+            if (existing.contains(key) || alreadyImported.contains(key) || outcome.inserted.contains(key)) {
+                outcome.duplicates++;
+                continue;
+            }
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudent(student);
+            enrollment.setCourse(course);
+            enrollment.setStatus(status);
+            enrollment.setEnrollmentDate(today);
+            accepted.add(enrollment);
+            outcome.inserted.add(key);
+            if (status.holdsSeat()) {
+                seatsWanted.merge(course.getId(), 1, Integer::sum);
+            }
+        }
+
+        // One seat claim per course; rows beyond the free seats are waitlisted in upload order
+        Map<Long, Integer> seatsGranted = new HashMap<>();
+        seatsWanted.forEach((courseId, wanted) -> seatsGranted.put(courseId, seatAllocator.claimUpTo(courseId, wanted)));
+
+        for (Enrollment enrollment : accepted) {
+            if (enrollment.getStatus().holdsSeat()
+                    && seatsGranted.merge(enrollment.getCourse().getId(), -1, Integer::sum) < 0) {
+                enrollment.setStatus(Enrollment.EnrollmentStatus.WAITLISTED);
+                outcome.waitlisted++;
+            }
+            entityManager.persist(enrollment);
+            addedByStatus.merge(enrollment.getStatus(), 1L, Long::sum);
+            events.add(new EnrollmentEvent(EnrollmentEvent.Type.CREATED, enrollment, null, null, null, actor, now));
+
+            if (++pending % batchSize == 0) {
+                // Send the batch and keep the persistence context small
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        addedByStatus.forEach(dashboardCounters::enrollmentsAdded);
+        auditLog.recordAll(events);
+        return outcome;
+    }
+
+    // Read a CSV upload with a header line naming the studentId, courseCode and (optional) status columns
+    public List<EnrollmentImportRow> parseCsv(Reader source) {
+        List<EnrollmentImportRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(source)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return rows;
+            }
+            List<String> columns = splitCsvLine(header).stream()
+                    .map(column -> column.trim().toLowerCase())
+                    .toList();
+            int studentColumn = columns.indexOf("studentid");
+            int courseColumn = columns.indexOf("coursecode");
+            int statusColumn = columns.indexOf("status");
+            if (studentColumn < 0 || courseColumn < 0) {
+                throw new IllegalArgumentException("CSV header must contain studentId and courseCode columns");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = splitCsvLine(line);
+                rows.add(new EnrollmentImportRow(
+                        column(values, studentColumn),
+                        column(values, courseColumn),
+                        column(values, statusColumn)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String column(List<String> values, int index) {
+        return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    private static Set<String> distinct(List<EnrollmentImportRow> rows, Function<EnrollmentImportRow, String> field) {
+        Set<String> values = new HashSet<>();
+        for (EnrollmentImportRow row : rows) {
+            String value = trim(field.apply(row));
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static String trim(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    // Blank means ENROLLED; anything else must name a status
+    private static Enrollment.EnrollmentStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return Enrollment.EnrollmentStatus.ENROLLED;
+        }
+        return Enrollment.EnrollmentStatus.valueOf(status.trim().toUpperCase());
+    }
+
+    private static class ChunkOutcome {
+        private final Set<EnrollmentKey> inserted = new HashSet<>();
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+        private int duplicates;
+        private int waitlisted;
+
+        void error(int row, String message) {
+            errors.add(new ImportResult.RowError(row, message));
+        }
+
+        static ChunkOutcome failed(int size, int firstRow, String message) {
+            ChunkOutcome outcome = new ChunkOutcome();
+            for (int i = 0; i < size; i++) {
+                outcome.error(firstRow + i, message);
+            }
+            return outcome;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.EnrollmentState;
+import com.erp.backend.dto.EnrollmentView;
+import com.erp.backend.dto.ReplayReport;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.repository.EnrollmentEventRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Rebuilds enrollment state from the audit log (EnrollmentEvent): the log is read in append order
+// and each event replaces its enrollment's state, or removes it for a deletion. Used to look at
+// enrollments as of a past moment, and to check the log against the enrollments table.
+@Service
+public class EnrollmentReplay {
+
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @Autowired
+    private EnrollmentEventRepository eventRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${audit.replay.batch-size:1000}")
+    private int batchSize;
+
+    // Every change to one enrollment, oldest first
+    public List<EnrollmentEvent> history(Long enrollmentId) {
+        auditLog.flush();
+        return eventRepository.findByEnrollmentIdOrderByIdAsc(enrollmentId);
+    }
+
+    // Enrollments as they stood at the given moment (now when null), by enrollment id
+    @Transactional(readOnly = true)
+    public Map<Long, EnrollmentState> stateAt(Instant at) {
+        auditLog.flush();
+        Map<Long, EnrollmentState> state = new HashMap<>();
+        long lastId = 0;
+        List<EnrollmentEvent> batch;
+        do {
+            batch = eventRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            for (EnrollmentEvent event : batch) {
+                lastId = event.getId();
+                if (at != null && event.getOccurredAt().isAfter(at)) {
+                    continue;
+                }
+                if (event.getType() == EnrollmentEvent.Type.DELETED) {
+                    state.remove(event.getEnrollmentId());
+                } else {
+                    state.put(event.getEnrollmentId(), EnrollmentState.after(event));
+                }
+            }
+            // Events are only read once; keep the persistence context from growing with the log
+            entityManager.clear();
+        } while (batch.size() == batchSize);
+        return state;
+    }
+
+    // Compare the current enrollments with the state the log rebuilds
+    @Transactional(readOnly = true)
+    public ReplayReport verify() {
+        long started = System.nanoTime();
+        Map<Long, EnrollmentState> state = stateAt(null);
+        List<EnrollmentView> enrollments = enrollmentRepository.findAllViews();
+        int matched = 0;
+        int untracked = 0;
+        List<Long> mismatchedIds = new ArrayList<>();
+        int mismatched = 0;
+        Map<Long, EnrollmentState> unseen = new HashMap<>(state);
+        for (EnrollmentView enrollment : enrollments) {
+            EnrollmentState replayed = unseen.remove(enrollment.id());
+            if (replayed == null) {
+                untracked++;
+            } else if (matches(enrollment, replayed)) {
+                matched++;
+            } else {
+                mismatched++;
+                if (mismatchedIds.size() < MAX_REPORTED_IDS) {
+                    mismatchedIds.add(enrollment.id());
+                }
+            }
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return new ReplayReport(eventRepository.count(), enrollments.size(), matched, untracked, unseen.size(),
+                mismatched, mismatchedIds, elapsedMs);
+    }
+
+    // Record a SNAPSHOT event for every enrollment the log has no state for, so that replaying
+    // (and the history store) covers enrollments created before the log existed; returns how
+    // many were recorded. The events go through the audit log like any other, once this commits.
+    @Transactional
+    public int baseline() {
+        Map<Long, EnrollmentState> state = stateAt(null);
+        List<Long> untracked = enrollmentRepository.findAllViews().stream()
+                .map(EnrollmentView::id)
+                .filter(id -> !state.containsKey(id))
+                .toList();
+        String actor = EnrollmentAuditLog.currentActor();
+        Instant now = Instant.now();
+        for (int from = 0; from < untracked.size(); from += batchSize) {
+            List<Long> ids = untracked.subList(from, Math.min(from + batchSize, untracked.size()));
+            List<EnrollmentEvent> events = new ArrayList<>();
+            for (Enrollment enrollment : enrollmentRepository.findAllById(ids)) {
+                events.add(new EnrollmentEvent(EnrollmentEvent.Type.SNAPSHOT, enrollment, null, null, null, actor, now));
+            }
+            auditLog.recordAll(events);
+            entityManager.clear();
+        }
+        return untracked.size();
+    }
+
+    private static boolean matches(EnrollmentView enrollment, EnrollmentState replayed) {
+        return Objects.equals(enrollment.student().id(), replayed.studentId())
+                && Objects.equals(enrollment.course().id(), replayed.courseId())
+                && enrollment.status() == replayed.status()
+                && Objects.equals(enrollment.grade(), replayed.grade())
+                && Objects.equals(enrollment.score(), replayed.score());
+    }
+}
@@ -1,21 +1,34 @@
 package com.erp.backend.service;
 
+import com.erp.backend.config.AuthenticatedUser;
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.EnrollmentView;
 import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
 import com.erp.backend.entity.Student;
 import com.erp.backend.entity.Course;
 import com.erp.backend.repository.EnrollmentRepository;
 import com.erp.backend.repository.StudentRepository;
 import com.erp.backend.repository.CourseRepository;
 import com.erp.backend.dto.EnrollmentRequest;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.method", histogram = true)
 public class EnrollmentService {
 
     @Autowired
@@ -27,8 +40,68 @@ public class EnrollmentService {
     @Autowired
     private CourseRepository courseRepository;
 
-    public List<Enrollment> getAllEnrollments() {
-        return enrollmentRepository.findAll();
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private SeatAllocator seatAllocator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadStreams readStreams;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    // Properties the enrollment list can be sorted by (all indexed)
+    private static final Map<String, Class<?>> SORTABLE = Map.of(
+            "id", Long.class,
+            "enrollmentDate", LocalDate.class);
+
+    public List<EnrollmentView> getAllEnrollments() {
+        return enrollmentRepository.findAllViews();
+    }
+
+    // Get one page of enrollments, optionally filtered by student, course and status
+    public CursorPage<Enrollment> getEnrollmentsPage(Long studentId, Long courseId, String status,
+                                                     String sort, String cursor, Integer limit) {
+        Specification<Enrollment> spec = (root, query, cb) -> cb.conjunction();
+        if (studentId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("student").get("id"), studentId));
+        }
+        if (courseId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("course").get("id"), courseId));
+        }
+        if (status != null && !status.isBlank()) {
+            Enrollment.EnrollmentStatus enrollmentStatus = parseStatus(status);
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), enrollmentStatus));
+        }
+        return keysetPager.page(enrollmentRepository, spec, SORTABLE, sort, cursor, limit, List.of("student", "course"));
+    }
+
+    // The same list as getEnrollmentsPage, streamed page by page as the caller consumes it, as
+    // EnrollmentView rows like the other list endpoints
+    public Flux<EnrollmentView> streamEnrollments(Long studentId, Long courseId, String status, String sort) {
+        keysetPager.checkSort(SORTABLE, sort);
+        if (status != null && !status.isBlank()) {
+            parseStatus(status);
+        }
+        // Each page fetch-joins student and course; a lazy proxy would fail once the page's session is gone
+        return readStreams.pages((cursor, limit) -> getEnrollmentsPage(studentId, courseId, status, sort, cursor, limit))
+                .map(EnrollmentView::of);
+    }
+
+    private static Enrollment.EnrollmentStatus parseStatus(String status) {
+        try {
+            return Enrollment.EnrollmentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
     }
 
     // Get all enrollments based on user role - ADMIN/LECTURER see ALL
@@ -38,10 +111,7 @@ public class EnrollmentService {
             return enrollmentRepository.findAll();
         } else if (hasStudentRole(authentication)) {
             // Students see only their own enrollments
-            String userEmail = authentication.getName();
-            Student student = studentRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("Student not found for user: " + userEmail));
-            return enrollmentRepository.findByStudent(student);
+            return enrollmentRepository.findByStudentPk(ownStudentId(authentication));
         } else {
             throw new RuntimeException("Access denied: Insufficient privileges");
         }
@@ -57,9 +127,7 @@ public class EnrollmentService {
             return enrollment;
         } else if (hasStudentRole(authentication)) {
             // Students can only see their own enrollments
-            String userEmail = authentication.getName();
-            if (enrollment.getStudent() != null && enrollment.getStudent().getEmail() != null &&
-                enrollment.getStudent().getEmail().equals(userEmail)) {
+            if (isOwnStudent(enrollment.getStudent(), authentication)) {
                 return enrollment;
             } else {
                 throw new RuntimeException("Access denied: You can only view your own enrollments");
@@ -73,14 +141,14 @@ public class EnrollmentService {
     public List<Enrollment> getEnrollmentsByStudentBasedOnRole(String studentId, Authentication authentication) {
         if (hasAdminOrStaffRole(authentication)) {
             // Admin/Lecturer can see any student's enrollments
-            return getEnrollmentsByStudentId(studentId);
+            return enrollmentRepository.findByStudent(studentRepository.findByStudentId(studentId)
+                    .orElseThrow(() -> new RuntimeException("Student not found")));
         } else if (hasStudentRole(authentication)) {
             // Students can only see their own enrollments
-            String userEmail = authentication.getName();
             Student requestedStudent = studentRepository.findByStudentId(studentId)
                     .orElseThrow(() -> new RuntimeException("Student not found"));
             
-            if (requestedStudent.getEmail() != null && requestedStudent.getEmail().equals(userEmail)) {
+            if (isOwnStudent(requestedStudent, authentication)) {
                 return enrollmentRepository.findByStudent(requestedStudent);
             } else {
                 throw new RuntimeException("Access denied: You can only view your own enrollments");
@@ -91,15 +159,14 @@ public class EnrollmentService {
     }
 
     // Student self-enrollment
+    @Transactional
     public Enrollment createStudentSelfEnrollment(EnrollmentRequest request, Authentication authentication) {
-        String userEmail = authentication.getName();
-        Student student = studentRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Student not found for user: " + userEmail));
-        
         // Ensure student is enrolling themselves
-        if (!student.getId().equals(request.getStudentId())) {
+        if (!ownStudentId(authentication).equals(request.getStudentId())) {
             throw new RuntimeException("Access denied: You can only enroll yourself");
         }
+        Student student = studentRepository.findById(request.getStudentId())
+                .orElseThrow(() -> new RuntimeException("Student not found for user: " + authentication.getName()));
         
         Course course = courseRepository.findById(request.getCourseId())
                 .orElseThrow(() -> new RuntimeException("Course not found"));
@@ -112,31 +179,66 @@ public class EnrollmentService {
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
         enrollment.setCourse(course);
-        enrollment.setStatus(Enrollment.EnrollmentStatus.PENDING); // Self-enrollments start as pending
+        // Self-enrollments start as pending, or waitlisted when the course is full
+        enrollment.setStatus(seatAllocator.admit(course.getId(), Enrollment.EnrollmentStatus.PENDING));
         enrollment.setEnrollmentDate(LocalDate.now());
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = insert(enrollment);
+        dashboardCounters.enrollmentAdded(saved.getStatus(), saved.getScore());
+        auditLog.record(EnrollmentEvent.Type.CREATED, saved, null, null, null);
+        return saved;
+    }
+
+    // Insert a new enrollment; the unique (student, course) constraint catches a concurrent
+    // duplicate that slipped past the existsByStudentAndCourse check
+    private Enrollment insert(Enrollment enrollment) {
+        try {
+            return enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            meterRegistry.counter("enrollment.write.conflicts", "reason", "duplicate").increment();
+            throw new RuntimeException("Student is already enrolled in this course");
+        }
     }
 
     // Helper methods to check roles
-    private boolean hasAdminOrStaffRole(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> 
-                    authority.getAuthority().equals("ROLE_ADMIN") || 
-                    authority.getAuthority().equals("ROLE_LECTURER") ||
-                    authority.getAuthority().equals("ROLE_STAFF"));
+    boolean hasAdminOrStaffRole(Authentication authentication) {
+        return AuthenticatedUser.from(authentication).isStaff();
+    }
+
+    boolean hasStudentRole(Authentication authentication) {
+        return AuthenticatedUser.from(authentication).isStudent();
     }
 
-    private boolean hasStudentRole(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_STUDENT"));
+    // Primary key of the calling student: from the token, or looked up by email for tokens
+    // issued without it
+    Long ownStudentId(Authentication authentication) {
+        AuthenticatedUser user = AuthenticatedUser.from(authentication);
+        if (user.getStudentId() != null) {
+            return user.getStudentId();
+        }
+        return studentRepository.findIdByEmail(user.getName())
+                .orElseThrow(() -> new RuntimeException("Student not found for user: " + user.getName()));
+    }
+
+    // Whether the student row is the caller's own
+    static boolean isOwnStudent(Student student, Authentication authentication) {
+        if (student == null) {
+            return false;
+        }
+        AuthenticatedUser user = AuthenticatedUser.from(authentication);
+        if (user.getStudentId() != null) {
+            return user.getStudentId().equals(student.getId());
+        }
+        return student.getEmail() != null && student.getEmail().equals(user.getName());
     }
 
+    // With its student and course loaded, as the enrollment endpoints return them
     public Enrollment getEnrollmentById(Long id) {
-        return enrollmentRepository.findById(id)
+        return enrollmentRepository.findWithStudentAndCourseById(id)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + id));
     }
 
+    @Transactional
     public Enrollment createEnrollment(Enrollment enrollment) {
         // Validate student exists
         Student student = studentRepository.findByStudentId(enrollment.getStudent().getStudentId())
@@ -154,11 +256,15 @@ public class EnrollmentService {
         enrollment.setStudent(student);
         enrollment.setCourse(course);
         enrollment.setEnrollmentDate(LocalDate.now());
-        enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+        enrollment.setStatus(seatAllocator.admit(course.getId(), Enrollment.EnrollmentStatus.ENROLLED));
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = insert(enrollment);
+        dashboardCounters.enrollmentAdded(saved.getStatus(), saved.getScore());
+        auditLog.record(EnrollmentEvent.Type.CREATED, saved, null, null, null);
+        return saved;
     }
 
+    @Transactional
     public Enrollment createEnrollment(Long studentId, Long courseId, String status) {
         // Validate student exists
         Student student = studentRepository.findById(studentId)
@@ -179,21 +285,30 @@ public class EnrollmentService {
         enrollment.setEnrollmentDate(LocalDate.now());
         
         // Set status if provided, otherwise default to ENROLLED
+        Enrollment.EnrollmentStatus requested = Enrollment.EnrollmentStatus.ENROLLED;
         if (status != null && !status.trim().isEmpty()) {
             try {
-                enrollment.setStatus(Enrollment.EnrollmentStatus.valueOf(status.toUpperCase()));
+                requested = Enrollment.EnrollmentStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
-                enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+                requested = Enrollment.EnrollmentStatus.ENROLLED;
             }
-        } else {
-            enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
         }
+        // Waitlist instead when the course is full
+        enrollment.setStatus(seatAllocator.admit(course.getId(), requested));
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = insert(enrollment);
+        dashboardCounters.enrollmentAdded(saved.getStatus(), saved.getScore());
+        auditLog.record(EnrollmentEvent.Type.CREATED, saved, null, null, null);
+        return saved;
     }
 
+    @Transactional
     public Enrollment updateEnrollment(Enrollment enrollment) {
         Enrollment existingEnrollment = getEnrollmentById(enrollment.getId());
+        Enrollment.EnrollmentStatus oldStatus = existingEnrollment.getStatus();
+        String oldGrade = existingEnrollment.getGrade();
+        Double oldScore = existingEnrollment.getScore();
+        Long oldCourseId = existingEnrollment.getCourse().getId();
         
         if (enrollment.getStudent() != null) {
             Student student = studentRepository.findByStudentId(enrollment.getStudent().getStudentId())
@@ -227,30 +342,49 @@ public class EnrollmentService {
             existingEnrollment.setStatus(enrollment.getStatus());
         }
         
-        return enrollmentRepository.save(existingEnrollment);
+        seatAllocator.transfer(oldCourseId, oldStatus, existingEnrollment.getCourse().getId(), existingEnrollment.getStatus());
+        Enrollment saved = enrollmentRepository.save(existingEnrollment);
+        dashboardCounters.enrollmentChanged(oldStatus, oldScore, saved.getStatus(), saved.getScore());
+        auditLog.record(changeType(oldStatus, oldGrade, oldScore, saved), saved, oldStatus, oldGrade, oldScore);
+        return saved;
     }
 
+    @Transactional
     public void deleteEnrollment(Long id) {
-        if (!enrollmentRepository.existsById(id)) {
-            throw new RuntimeException("Enrollment not found with id: " + id);
-        }
-        enrollmentRepository.deleteById(id);
+        Enrollment enrollment = getEnrollmentById(id);
+        enrollmentRepository.delete(enrollment);
+        seatAllocator.release(enrollment.getCourse().getId(), enrollment.getStatus());
+        dashboardCounters.enrollmentRemoved(enrollment.getStatus(), enrollment.getScore());
+        auditLog.record(EnrollmentEvent.Type.DELETED, enrollment, null, null, null);
     }
 
-    public List<Enrollment> getEnrollmentsByStudentId(String studentId) {
-        Student student = studentRepository.findByStudentId(studentId)
+    public List<EnrollmentView> getEnrollmentsByStudentId(String studentId) {
+        Long id = studentRepository.findIdByStudentId(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
-        return enrollmentRepository.findByStudent(student);
+        return enrollmentRepository.findViewsByStudentPk(id);
     }
 
-    public List<Enrollment> getEnrollmentsByCourseId(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
-        return enrollmentRepository.findByCourse(course);
+    public List<EnrollmentView> getEnrollmentsByCourseId(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+        return enrollmentRepository.findViewsByCourseId(courseId);
+    }
+
+    public List<Enrollment> getWaitlist(Long courseId) {
+        return enrollmentRepository.findWaitlist(courseId, Enrollment.EnrollmentStatus.WAITLISTED);
     }
 
+    public List<EnrollmentView> getWaitlistViews(Long courseId) {
+        return enrollmentRepository.findWaitlistViews(courseId, Enrollment.EnrollmentStatus.WAITLISTED);
+    }
+
+    @Transactional
     public Enrollment updateGrade(Long enrollmentId, String grade, Double score) {
         Enrollment enrollment = getEnrollmentById(enrollmentId);
+        Enrollment.EnrollmentStatus oldStatus = enrollment.getStatus();
+        String oldGrade = enrollment.getGrade();
+        Double oldScore = enrollment.getScore();
         enrollment.setGrade(grade);
         enrollment.setScore(score);
         
@@ -260,11 +394,20 @@ public class EnrollmentService {
             enrollment.setCompletionDate(LocalDate.now());
         }
         
-        return enrollmentRepository.save(enrollment);
+        Long courseId = enrollment.getCourse().getId();
+        seatAllocator.transfer(courseId, oldStatus, courseId, enrollment.getStatus());
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        dashboardCounters.enrollmentChanged(oldStatus, oldScore, saved.getStatus(), saved.getScore());
+        auditLog.record(EnrollmentEvent.Type.GRADE_CHANGED, saved, oldStatus, oldGrade, oldScore);
+        return saved;
     }
 
+    @Transactional
     public Enrollment updateStatus(Long enrollmentId, String status) {
         Enrollment enrollment = getEnrollmentById(enrollmentId);
+        Enrollment.EnrollmentStatus oldStatus = enrollment.getStatus();
+        String oldGrade = enrollment.getGrade();
+        Double oldScore = enrollment.getScore();
         enrollment.setStatus(Enrollment.EnrollmentStatus.valueOf(status.toUpperCase()));
         
         // Set completion date if status is COMPLETED
@@ -272,6 +415,23 @@ public class EnrollmentService {
             enrollment.setCompletionDate(LocalDate.now());
         }
         
-        return enrollmentRepository.save(enrollment);
+        Long courseId = enrollment.getCourse().getId();
+        seatAllocator.transfer(courseId, oldStatus, courseId, enrollment.getStatus());
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        dashboardCounters.enrollmentChanged(oldStatus, oldScore, saved.getStatus(), saved.getScore());
+        auditLog.record(EnrollmentEvent.Type.STATUS_CHANGED, saved, oldStatus, oldGrade, oldScore);
+        return saved;
+    }
+
+    // How an edit through updateEnrollment is classified in the audit log
+    private static EnrollmentEvent.Type changeType(Enrollment.EnrollmentStatus oldStatus, String oldGrade,
+                                                   Double oldScore, Enrollment updated) {
+        if (!Objects.equals(oldGrade, updated.getGrade()) || !Objects.equals(oldScore, updated.getScore())) {
+            return EnrollmentEvent.Type.GRADE_CHANGED;
+        }
+        if (oldStatus != updated.getStatus()) {
+            return EnrollmentEvent.Type.STATUS_CHANGED;
+        }
+        return EnrollmentEvent.Type.UPDATED;
     }
 }
@@ -0,0 +1,195 @@
+package com.erp.backend.service;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Streams whole tables to an OutputStream as CSV or NDJSON. Rows are read through a
+// forward-only JPA stream and the persistence context is cleared every few hundred rows,
+// so memory use stays flat however many rows are exported.
+@Service
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String[] ENROLLMENT_COLUMNS = {
+            "id", "studentId", "studentName", "courseCode", "courseTitle",
+            "status", "grade", "score", "enrollmentDate", "completionDate"};
+
+    private static final String[] STUDENT_COLUMNS = {
+            "id", "studentId", "firstName", "lastName", "email", "phone",
+            "major", "yearLevel", "enrollmentDate"};
+
+    private static final String[] COURSE_COLUMNS = {
+            "id", "code", "title", "credits", "department", "createdDate", "description"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Value("${export.clear-interval:500}")
+    private int clearInterval;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public long exportEnrollments(OutputStream out, Format format) {
+        return export(out, format, ENROLLMENT_COLUMNS, enrollmentRepository::streamAllForExport, (Enrollment e) -> new Object[]{
+                e.getId(),
+                e.getStudent().getStudentId(),
+                e.getStudent().getName(),
+                e.getCourse().getCode(),
+                e.getCourse().getTitle(),
+                e.getStatus(),
+                e.getGrade(),
+                e.getScore(),
+                e.getEnrollmentDate(),
+                e.getCompletionDate()});
+    }
+
+    public long exportStudents(OutputStream out, Format format) {
+        return export(out, format, STUDENT_COLUMNS, studentRepository::streamAllForExport, (Student s) -> new Object[]{
+                s.getId(),
+                s.getStudentId(),
+                s.getFirstName(),
+                s.getLastName(),
+                s.getEmail(),
+                s.getPhone(),
+                s.getMajor(),
+                s.getYearLevel(),
+                s.getEnrollmentDate()});
+    }
+
+    public long exportCourses(OutputStream out, Format format) {
+        return export(out, format, COURSE_COLUMNS, courseRepository::streamAllForExport, (Course c) -> new Object[]{
+                c.getId(),
+                c.getCode(),
+                c.getTitle(),
+                c.getCredits(),
+                c.getDepartment(),
+                c.getCreatedDate(),
+                c.getDescription()});
+    }
+
+    private <T> long export(OutputStream out, Format format, String[] columns,
+                            Supplier<Stream<T>> source, Function<T, Object[]> toRow) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        Long written = transaction.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            long count = 0;
+            try (Stream<T> rows = source.get()) {
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, columns);
+                }
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] values = toRow.apply(iterator.next());
+                    if (format == Format.CSV) {
+                        writeCsvLine(writer, values);
+                    } else {
+                        writeJsonLine(writer, columns, values);
+                    }
+                    if (++count % clearInterval == 0) {
+                        // Push what we have to the client and drop the rows already written
+                        writer.flush();
+                        entityManager.clear();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonLine(Writer writer, String[] columns, Object[] values) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            // Dates and enums are written in their ISO/string form
+            row.put(columns[i], value == null || value instanceof Number ? value : value.toString());
+        }
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private static String csvEscape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,255 @@
+package com.erp.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One file of EnrollmentHistoryStore: a 64-byte header followed by up to `capacity` fixed-width
+// records, the whole file memory-mapped. Besides the layout, the header holds the id of the last
+// audit event the store had appended when this segment was written to. Records are read in place through the accessors below,
+// so a scan copies nothing and allocates nothing per record.
+//
+// Record layout (56 bytes, little-endian):
+//   0 version          8 enrollment id    16 student id     24 course id
+//  32 recorded at (epoch millis)          40 enrollment date (epoch day)
+//  44 completion date (epoch day)         48 score (float)   52 status (ordinal)
+//  53 flags           54 grade (two ASCII characters)
+// Missing dates are NO_DAY, a missing score NaN and a missing status -1.
+//
+// A sparse index per student and per course lists the 64-record blocks holding that id, so a
+// lookup reads only those blocks. It is rebuilt from the records when the file is opened.
+// One thread appends; any number read. A reader sees records below count(), which is only
+// advanced after the record and the index entry are in place.
+final class HistorySegment {
+
+    static final int RECORD_SIZE = 56;
+    static final int HEADER_SIZE = 64;
+    static final int BLOCK_RECORDS = 64;
+    static final int NO_DAY = Integer.MIN_VALUE;
+    static final byte DELETED = 1;
+
+    private static final int MAGIC = 0x45484953;
+    private static final int FORMAT = 1;
+
+    private static final int MAGIC_AT = 0;
+    private static final int FORMAT_AT = 4;
+    private static final int CAPACITY_AT = 8;
+    private static final int COUNT_AT = 12;
+    private static final int GENERATION_AT = 16;
+    private static final int FIRST_VERSION_AT = 24;
+    private static final int LAST_EVENT_ID_AT = 32;
+
+    private static final int VERSION = 0;
+    private static final int ENROLLMENT_ID = 8;
+    private static final int STUDENT_ID = 16;
+    private static final int COURSE_ID = 24;
+    private static final int RECORDED_AT = 32;
+    private static final int ENROLLMENT_DAY = 40;
+    private static final int COMPLETION_DAY = 44;
+    private static final int SCORE = 48;
+    private static final int STATUS = 52;
+    private static final int FLAGS = 53;
+    private static final int GRADE = 54;
+
+    private static final int[] EMPTY = new int[0];
+
+    private volatile Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int generation;
+    private final long firstVersion;
+    private volatile int count;
+
+    private final ConcurrentHashMap<Long, int[]> studentBlocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, int[]> courseBlocks = new ConcurrentHashMap<>();
+
+    private HistorySegment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(CAPACITY_AT);
+        this.generation = buffer.getInt(GENERATION_AT);
+        this.firstVersion = buffer.getLong(FIRST_VERSION_AT);
+    }
+
+    static String fileName(long firstVersion, int generation) {
+        return String.format("%020d-%d.seg", firstVersion, generation);
+    }
+
+    // A new, empty segment; the file is sized up front (sparse on most file systems)
+    static HistorySegment create(Path file, long firstVersion, int generation, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC_AT, MAGIC);
+        buffer.putInt(FORMAT_AT, FORMAT);
+        buffer.putInt(CAPACITY_AT, capacity);
+        buffer.putInt(COUNT_AT, 0);
+        buffer.putInt(GENERATION_AT, generation);
+        buffer.putLong(FIRST_VERSION_AT, firstVersion);
+        return new HistorySegment(file, channel, buffer);
+    }
+
+    // An existing segment, with its index rebuilt from the records
+    static HistorySegment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_SIZE || buffer.getInt(MAGIC_AT) != MAGIC || buffer.getInt(FORMAT_AT) != FORMAT) {
+                throw new IOException("Not an enrollment history segment: " + file);
+            }
+            HistorySegment segment = new HistorySegment(file, channel, buffer);
+            int stored = Math.min(buffer.getInt(COUNT_AT), segment.capacity);
+            for (int i = 0; i < stored; i++) {
+                segment.index(i);
+            }
+            segment.count = stored;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    long firstVersion() {
+        return firstVersion;
+    }
+
+    // 0 when the segment has no events (or predates the field)
+    long lastEventId() {
+        return buffer.getLong(LAST_EVENT_ID_AT);
+    }
+
+    // Writer only
+    void lastEventId(long eventId) {
+        buffer.putLong(LAST_EVENT_ID_AT, eventId);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long fileSize() {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+    }
+
+    // Writer only
+    void append(long version, long enrollmentId, long studentId, long courseId, long recordedAt,
+                int enrollmentDay, int completionDay, float score, byte status, byte flags, short grade) {
+        int index = count;
+        int at = offset(index);
+        buffer.putLong(at + VERSION, version);
+        buffer.putLong(at + ENROLLMENT_ID, enrollmentId);
+        buffer.putLong(at + STUDENT_ID, studentId);
+        buffer.putLong(at + COURSE_ID, courseId);
+        buffer.putLong(at + RECORDED_AT, recordedAt);
+        buffer.putInt(at + ENROLLMENT_DAY, enrollmentDay);
+        buffer.putInt(at + COMPLETION_DAY, completionDay);
+        buffer.putFloat(at + SCORE, score);
+        buffer.put(at + STATUS, status);
+        buffer.put(at + FLAGS, flags);
+        buffer.putShort(at + GRADE, grade);
+        published(index);
+    }
+
+    // Writer only: the record at index of source, byte for byte
+    void copy(HistorySegment source, int index) {
+        int target = count;
+        buffer.put(offset(target), source.buffer, offset(index), RECORD_SIZE);
+        published(target);
+    }
+
+    private void published(int index) {
+        index(index);
+        buffer.putInt(COUNT_AT, index + 1);
+        count = index + 1;
+    }
+
+    private void index(int index) {
+        int block = index / BLOCK_RECORDS;
+        addBlock(studentBlocks, studentId(index), block);
+        addBlock(courseBlocks, courseId(index), block);
+    }
+
+    private static void addBlock(ConcurrentHashMap<Long, int[]> blocks, long key, int block) {
+        blocks.compute(key, (id, existing) -> {
+            if (existing == null) {
+                return new int[]{block};
+            }
+            if (existing[existing.length - 1] == block) {
+                return existing;
+            }
+            int[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = block;
+            return grown;
+        });
+    }
+
+    // Blocks that may hold records of the student or course; empty when there are none
+    int[] studentBlocks(long studentId) {
+        return studentBlocks.getOrDefault(studentId, EMPTY);
+    }
+
+    int[] courseBlocks(long courseId) {
+        return courseBlocks.getOrDefault(courseId, EMPTY);
+    }
+
+    long version(int index) { return buffer.getLong(offset(index) + VERSION); }
+    long enrollmentId(int index) { return buffer.getLong(offset(index) + ENROLLMENT_ID); }
+    long studentId(int index) { return buffer.getLong(offset(index) + STUDENT_ID); }
+    long courseId(int index) { return buffer.getLong(offset(index) + COURSE_ID); }
+    long recordedAt(int index) { return buffer.getLong(offset(index) + RECORDED_AT); }
+    int enrollmentDay(int index) { return buffer.getInt(offset(index) + ENROLLMENT_DAY); }
+    int completionDay(int index) { return buffer.getInt(offset(index) + COMPLETION_DAY); }
+    float score(int index) { return buffer.getFloat(offset(index) + SCORE); }
+    byte status(int index) { return buffer.get(offset(index) + STATUS); }
+    short grade(int index) { return buffer.getShort(offset(index) + GRADE); }
+
+    boolean isDeleted(int index) {
+        return (buffer.get(offset(index) + FLAGS) & DELETED) != 0;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void moveTo(Path target) throws IOException {
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        file = target;
+    }
+
+    // Closes the file; the mapping itself stays readable until it is garbage collected, so a
+    // scan that still holds this segment finishes normally
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
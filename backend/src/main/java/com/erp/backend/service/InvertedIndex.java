@@ -0,0 +1,333 @@
+package com.erp.backend.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory term index over a set of documents keyed by database id. Each document is a list
+// of weighted text fields; a query matches a document when every query token matches one of
+// its terms exactly, as a prefix, or within a small edit distance.
+public class InvertedIndex {
+
+    // A piece of text to index and how much a match in it is worth. Identifier fields also index
+    // their letters and digits run together and split apart ("CS-101", "cs101" -> "cs", "101", "cs101").
+    public record Field(String text, float weight, boolean identifier) {
+        public static Field text(String text, float weight) {
+            return new Field(text, weight, false);
+        }
+
+        public static Field identifier(String text, float weight) {
+            return new Field(text, weight, true);
+        }
+    }
+
+    // How a query token may match a term, and what fraction of the field weight it earns
+    private static final float EXACT = 3.0f;
+    private static final float PREFIX = 2.0f;
+    private static final float FUZZY_ONE_EDIT = 1.0f;
+    private static final float FUZZY_TWO_EDITS = 0.5f;
+
+    // Cap on the terms a short prefix or a fuzzy token may expand to
+    private static final int MAX_EXPANSIONS = 1024;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ids written incrementally while a rebuild is loading; the rebuild must not overwrite them
+    private Set<Long> touchedDuringRebuild;
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add or replace a document
+    public void put(Long id, List<Field> fields) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(id);
+            }
+            index(id, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(id);
+            }
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Start reloading from the database. Searches report not-ready until finishRebuild.
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            documentTerms.clear();
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Load one document read during a rebuild, unless a newer incremental write already covered it
+    public void load(Long id, List<Field> fields) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild == null || !touchedDuringRebuild.contains(id)) {
+                index(id, fields);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Abandon a failed rebuild; searches fall back to the database until the next one succeeds
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = null;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the best matching documents, best first
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = matchToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Every token has to match
+                    Map<Long, Float> combined = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        Float score = tokenScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return topIds(scores, limit);
+    }
+
+    private Map<Long, Float> matchToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) {
+            exact.forEach((id, weight) -> scores.merge(id, weight * EXACT, Math::max));
+        }
+
+        // Longer terms earn less, so "math" ranks "maths" above "mathematics"
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            if (++expansions > MAX_EXPANSIONS) {
+                break;
+            }
+            float closeness = (float) token.length() / entry.getKey().length();
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * PREFIX * (0.5f + 0.5f * closeness), Math::max));
+        }
+
+        // Typos: only for tokens long enough for an edit to be a typo rather than a different word.
+        // Terms are assumed to share the first letter, which keeps the scan to one slice of the index.
+        if (token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            String first = token.substring(0, 1);
+            expansions = 0;
+            for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) > maxEdits || term.startsWith(token)) {
+                    continue;
+                }
+                int edits = editDistance(token, term, maxEdits);
+                if (edits > 0 && edits <= maxEdits) {
+                    if (++expansions > MAX_EXPANSIONS) {
+                        break;
+                    }
+                    float factor = edits == 1 ? FUZZY_ONE_EDIT : FUZZY_TWO_EDITS;
+                    entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static List<Long> topIds(Map<Long, Float> scores, int limit) {
+        Comparator<Map.Entry<Long, Float>> byRank = Map.Entry.<Long, Float>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        // Keep only the best `limit` entries; the heap's head is the worst of them
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(byRank.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(best);
+        ranked.sort(byRank);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Float> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private void index(Long id, List<Field> fields) {
+        unindex(id);
+        Set<String> terms = new HashSet<>();
+        for (Field field : fields) {
+            if (field.text() == null || field.text().isBlank()) {
+                continue;
+            }
+            List<String> tokens = tokenize(field.text());
+            if (field.identifier()) {
+                tokens = identifierTerms(tokens);
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashMap<>()).merge(id, field.weight(), Math::max);
+                terms.add(token);
+            }
+        }
+        documentTerms.put(id, terms);
+    }
+
+    private void unindex(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static List<String> identifierTerms(List<String> tokens) {
+        Set<String> terms = new LinkedHashSet<>(tokens);
+        terms.add(String.join("", tokens));
+        for (String token : tokens) {
+            int start = 0;
+            for (int i = 1; i < token.length(); i++) {
+                if (Character.isDigit(token.charAt(i)) != Character.isDigit(token.charAt(i - 1))) {
+                    terms.add(token.substring(start, i));
+                    start = i;
+                }
+            }
+            if (start > 0) {
+                terms.add(token.substring(start));
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    // Lower-case, accent-free runs of letters and digits
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    // Optimal string alignment distance, giving up once it must exceed maxEdits
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
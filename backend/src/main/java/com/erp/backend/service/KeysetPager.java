@@ -0,0 +1,146 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.CursorPage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keyset (cursor) pagination shared by the list endpoints. Each page is read with
+// "WHERE (sortKey, id) > (last seen) ORDER BY sortKey, id LIMIT n", so the cost of a page
+// does not grow with how deep the client has scrolled.
+@Component
+public class KeysetPager {
+
+    private static final String SORT_KEY = "_sort";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxLimit;
+
+    // sortable maps each allowed sort property (an indexed, non-null column) to its Java type.
+    // sortParam is "property" for ascending or "-property" for descending; "id" is the default.
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> spec,
+                                  Map<String, Class<?>> sortable, String sortParam, String cursor, Integer limit) {
+        return page(repository, spec, sortable, sortParam, cursor, limit, List.of());
+    }
+
+    // As above, also loading the given lazy associations of each row in the page's select
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> spec,
+                                  Map<String, Class<?>> sortable, String sortParam, String cursor, Integer limit,
+                                  List<String> fetch) {
+        String sortValue = checkSort(sortable, sortParam);
+        boolean descending = sortValue.startsWith("-");
+        String property = descending ? sortValue.substring(1) : sortValue;
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, property);
+        if (!"id".equals(property)) {
+            // id breaks ties so every row has a unique position
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+
+        int pageSize = resolveLimit(limit);
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(decodeCursor(cursor, sortValue, sortable));
+
+        Sort pageSort = sort;
+        Window<T> window = repository.findBy(spec.and(fetching(fetch)),
+                query -> query.sortBy(pageSort).limit(pageSize).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encodeCursor(last.getKeys(), sortValue);
+        }
+        return new CursorPage<>(window.getContent(), nextCursor, window.hasNext(), pageSize, sortValue);
+    }
+
+    // Fetch-joins the associations into the row select; count queries are left alone
+    private static <T> Specification<T> fetching(List<String> associations) {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                associations.forEach(association -> root.fetch(association, JoinType.LEFT));
+            }
+            return null;
+        };
+    }
+
+    // The normalized sort parameter; throws IllegalArgumentException for a property not in sortable
+    public String checkSort(Map<String, Class<?>> sortable, String sortParam) {
+        String sortValue = sortParam == null || sortParam.isBlank() ? "id" : sortParam.trim();
+        String property = sortValue.startsWith("-") ? sortValue.substring(1) : sortValue;
+        if (!sortable.containsKey(property)) {
+            throw new IllegalArgumentException("Cannot sort by " + property + "; allowed: " + sortable.keySet());
+        }
+        return sortValue;
+    }
+
+    public int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private String encodeCursor(Map<String, Object> keys, String sortValue) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(SORT_KEY, sortValue);
+        keys.forEach((key, value) -> values.put(key, String.valueOf(value)));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(values);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private Map<String, Object> decodeCursor(String cursor, String sortValue, Map<String, Class<?>> sortable) {
+        Map<String, String> values;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            values = objectMapper.readValue(new String(json, StandardCharsets.UTF_8), new TypeReference<Map<String, String>>() {});
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sortValue.equals(values.remove(SORT_KEY))) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            Class<?> type = sortable.get(entry.getKey());
+            if (type == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            keys.put(entry.getKey(), convert(entry.getValue(), type));
+        }
+        return keys;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == Long.class) return Long.valueOf(value);
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == LocalDate.class) return LocalDate.parse(value);
+        return value;
+    }
+}
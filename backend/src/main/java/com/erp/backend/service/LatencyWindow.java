@@ -0,0 +1,35 @@
+package com.erp.backend.service;
+
+import java.util.Arrays;
+
+// The most recent N latency samples, for percentiles over current traffic rather than since startup
+class LatencyWindow {
+
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    // Percentile (0-100) in milliseconds, or 0 before the first sample
+    double percentileMs(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, size);
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.erp.backend.service;
+
+import com.erp.backend.config.JwtService;
+import com.erp.backend.config.PasswordHashingConfig;
+import com.erp.backend.dto.LoginResponse;
+import com.erp.backend.dto.LoginStats;
+import com.erp.backend.entity.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logins, run on the bounded loginExecutor. Password verification (and the occasional rehash) is
+// the expensive part; keeping it off request threads means a login surge cannot starve the rest
+// of the API, and past the queue bound logins are rejected rather than piling up.
+@Service
+public class LoginService {
+
+    private static final int LATENCY_SAMPLES = 2048;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordHashingConfig passwordHashing;
+
+    @Autowired
+    @Qualifier("loginExecutor")
+    private ThreadPoolTaskExecutor loginExecutor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final LatencyWindow loginTimes = new LatencyWindow(LATENCY_SAMPLES);
+    private final LatencyWindow queueWaits = new LatencyWindow(LATENCY_SAMPLES);
+
+    // Completes with the issued token, or exceptionally with an AuthenticationException for bad
+    // credentials or a RejectedExecutionException when the login queue is full
+    public CompletableFuture<LoginResponse> login(String username, String password) {
+        long submitted = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaits.record(System.nanoTime() - submitted);
+                try {
+                    LoginResponse response = authenticate(username, password);
+                    completed.incrementAndGet();
+                    return response;
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    throw e;
+                } finally {
+                    loginTimes.record(System.nanoTime() - submitted);
+                }
+            }, loginExecutor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private LoginResponse authenticate(String username, String password) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password));
+        User user = userService.findByUsernameOrThrow(username);
+        String principal = ((UserDetails) authentication.getPrincipal()).getUsername();
+        return issue(principal, userService.tokenClaims(user));
+    }
+
+    // Exchanges a refresh token for a new access and refresh token pair. The presented token is
+    // revoked, so each one works once; the new tokens carry its claims forward, so the User row is
+    // not read. Empty if the token is invalid, expired, or already used.
+    public Optional<LoginResponse> refresh(String refreshToken) {
+        return jwtService.verifyRefresh(refreshToken)
+                .filter(jwtService::revoke)
+                .map(claims -> issue(claims.getSubject(), carriedClaims(claims)));
+    }
+
+    // Revokes the session's refresh token and the access token it was sent with, where given
+    public void logout(String accessToken, String refreshToken) {
+        jwtService.verifyAccess(accessToken).ifPresent(jwtService::revoke);
+        jwtService.verifyRefresh(refreshToken).ifPresent(jwtService::revoke);
+    }
+
+    private LoginResponse issue(String username, Map<String, Object> claims) {
+        return new LoginResponse(
+                jwtService.generateAccessToken(username, claims),
+                jwtService.generateRefreshToken(username, claims),
+                jwtService.getAccessExpirationMs() / 1000,
+                username,
+                (String) claims.get(JwtService.ROLE_CLAIM));
+    }
+
+    private static Map<String, Object> carriedClaims(Claims claims) {
+        Map<String, Object> carried = new HashMap<>();
+        carried.put(JwtService.ROLE_CLAIM, claims.get(JwtService.ROLE_CLAIM));
+        if (claims.get(JwtService.STUDENT_ID_CLAIM) != null) {
+            carried.put(JwtService.STUDENT_ID_CLAIM, claims.get(JwtService.STUDENT_ID_CLAIM));
+        }
+        return carried;
+    }
+
+    public LoginStats stats() {
+        return new LoginStats(
+                passwordHashing.getBcryptStrength(),
+                loginExecutor.getMaxPoolSize(),
+                loginExecutor.getThreadPoolExecutor().getQueue().size(),
+                loginExecutor.getQueueCapacity(),
+                completed.get(),
+                failed.get(),
+                rejected.get(),
+                userService.getPasswordsRehashed(),
+                loginTimes.percentileMs(50),
+                loginTimes.percentileMs(99),
+                queueWaits.percentileMs(50),
+                queueWaits.percentileMs(99));
+    }
+}
@@ -0,0 +1,88 @@
+package com.erp.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Bounded ring for many producers and one consumer, without locks. A producer claims the next
+// position with a CAS on the tail, stores its element and publishes it by advancing the slot's
+// sequence; the consumer takes published elements in order and hands each slot back to the
+// producers a lap later. offer never blocks: it returns false when the ring is full.
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    // Per slot: position + 1 once that position's element is published, position + capacity once
+    // the consumer has taken it and the slot is free for the next lap
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the consumer; volatile so size() can be read from anywhere
+    private volatile long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long available = sequences.get(slot(position)) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            }
+            // Otherwise another producer claimed this position first; try the next one
+        }
+        int slot = slot(position);
+        elements.set(slot, element);
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    // Takes up to max published elements in order; must only be called by one thread at a time
+    int drain(Consumer<E> consumer, int max) {
+        int taken = 0;
+        long position = head;
+        while (taken < max) {
+            int slot = slot(position);
+            if (sequences.get(slot) != position + 1) {
+                // Empty, or the next producer has claimed its position but not yet published
+                break;
+            }
+            E element = elements.get(slot);
+            elements.set(slot, null);
+            sequences.set(slot, position + mask + 1);
+            position++;
+            head = position;
+            taken++;
+            consumer.accept(element);
+        }
+        return taken;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    private int slot(long position) {
+        return (int) position & mask;
+    }
+}
@@ -0,0 +1,228 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.Suggestion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Typeahead over a set of labelled documents keyed by database id. Every word position of a
+// document's texts becomes a key ("ada lovelace" -> "ada lovelace", "lovelace"), and a query
+// completes the keys it is a prefix of.
+//
+// Keys live in one sorted array searched with a binary search. Writes go to a small sorted
+// overlay and mark the document's array entries stale; once the overlay grows past a few times
+// the square root of the array size the two are merged into a new array. Each write copies the
+// overlay, so that bound balances the cost of those copies against the cost of merging.
+// Readers never lock: they see an immutable snapshot of array and overlay through a volatile field.
+public class PrefixSuggester {
+
+    // Overlay size that triggers a merge: OVERLAY_FACTOR * sqrt(array size), at least MIN_OVERLAY
+    private static final int OVERLAY_FACTOR = 8;
+    private static final int MIN_OVERLAY = 1024;
+
+    // Cap on keys visited per lookup, so a one-letter prefix stays as cheap as a long one
+    private static final int MAX_SCAN = 4096;
+
+    private record Document(String label, String[] keys) {
+    }
+
+    private record Key(String key, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+
+    // Sorted (key, id) pairs, overlay entries written since, and ids whose array entries are outdated
+    private record Snapshot(String[] keys, long[] ids, NavigableSet<Key> overlay, Set<Long> stale) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new TreeSet<>(), Set.of());
+    }
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Ids written incrementally while a rebuild is loading; the rebuild must not overwrite them
+    private Set<Long> touchedDuringRebuild;
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Add or replace a document
+    public synchronized void put(Long id, String label, List<String> texts) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(id);
+        }
+        Document document = new Document(label, keysOf(texts));
+        documents.put(id, document);
+        if (ready) {
+            Snapshot current = snapshot;
+            NavigableSet<Key> overlay = withoutId(current.overlay(), id);
+            for (String key : document.keys()) {
+                overlay.add(new Key(key, id));
+            }
+            publish(current, overlay, id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(id);
+        }
+        if (documents.remove(id) != null && ready) {
+            Snapshot current = snapshot;
+            publish(current, withoutId(current.overlay(), id), id);
+        }
+    }
+
+    // Start reloading from the database. Suggestions report not-ready until finishRebuild.
+    public synchronized void beginRebuild() {
+        ready = false;
+        documents.clear();
+        snapshot = Snapshot.EMPTY;
+        touchedDuringRebuild = new HashSet<>();
+    }
+
+    // Load one document read during a rebuild, unless a newer incremental write already covered it
+    public synchronized void load(Long id, String label, List<String> texts) {
+        if (touchedDuringRebuild == null || !touchedDuringRebuild.contains(id)) {
+            documents.put(id, new Document(label, keysOf(texts)));
+        }
+    }
+
+    public synchronized void finishRebuild() {
+        touchedDuringRebuild = null;
+        snapshot = compact();
+        ready = true;
+    }
+
+    // Abandon a failed rebuild; suggestions fall back to the database until the next one succeeds
+    public synchronized void abortRebuild() {
+        touchedDuringRebuild = null;
+        ready = false;
+    }
+
+    // Up to `limit` documents with a key starting with the query, in key order
+    public List<Suggestion> suggest(String query, int limit) {
+        List<String> tokens = InvertedIndex.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(current, String.join(" ", tokens), limit, ids);
+        if (tokens.size() > 1 && ids.size() < limit) {
+            // "cs 101" should also complete the code "CS101"
+            collect(current, String.join("", tokens), limit, ids);
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Document document = documents.get(id);
+            if (document != null) {
+                suggestions.add(new Suggestion(id, document.label()));
+            }
+        }
+        return suggestions;
+    }
+
+    // Walk the array and the overlay in step from the first key >= prefix
+    private static void collect(Snapshot snapshot, String prefix, int limit, Set<Long> ids) {
+        String[] keys = snapshot.keys();
+        long[] arrayIds = snapshot.ids();
+        int i = lowerBound(keys, prefix);
+        Iterator<Key> overlay = snapshot.overlay().tailSet(new Key(prefix, Long.MIN_VALUE), true).iterator();
+        Key pending = overlay.hasNext() ? overlay.next() : null;
+
+        for (int scanned = 0; scanned < MAX_SCAN && ids.size() < limit; scanned++) {
+            boolean arrayMatches = i < keys.length && keys[i].startsWith(prefix);
+            boolean overlayMatches = pending != null && pending.key().startsWith(prefix);
+            if (!arrayMatches && !overlayMatches) {
+                return;
+            }
+            if (arrayMatches && (!overlayMatches || keys[i].compareTo(pending.key()) <= 0)) {
+                if (!snapshot.stale().contains(arrayIds[i])) {
+                    ids.add(arrayIds[i]);
+                }
+                i++;
+            } else {
+                ids.add(pending.id());
+                pending = overlay.hasNext() ? overlay.next() : null;
+            }
+        }
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void publish(Snapshot current, NavigableSet<Key> overlay, Long changedId) {
+        Set<Long> stale = new HashSet<>(current.stale());
+        stale.add(changedId);
+        int maxOverlay = Math.max(MIN_OVERLAY, OVERLAY_FACTOR * (int) Math.sqrt(current.keys().length));
+        if (overlay.size() + stale.size() > maxOverlay) {
+            snapshot = compact();
+        } else {
+            snapshot = new Snapshot(current.keys(), current.ids(), overlay, stale);
+        }
+    }
+
+    // Rebuild the sorted array from every document, emptying the overlay
+    private Snapshot compact() {
+        List<Key> all = new ArrayList<>();
+        documents.forEach((id, document) -> {
+            for (String key : document.keys()) {
+                all.add(new Key(key, id));
+            }
+        });
+        Collections.sort(all);
+        String[] keys = new String[all.size()];
+        long[] ids = new long[all.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = all.get(i).key();
+            ids[i] = all.get(i).id();
+        }
+        return new Snapshot(keys, ids, new TreeSet<>(), Set.of());
+    }
+
+    private static NavigableSet<Key> withoutId(NavigableSet<Key> overlay, long id) {
+        NavigableSet<Key> copy = new TreeSet<>();
+        for (Key key : overlay) {
+            if (key.id() != id) {
+                copy.add(key);
+            }
+        }
+        return copy;
+    }
+
+    // Each word position of each text, plus the text with its words run together ("cs-101" -> "cs101")
+    private static String[] keysOf(List<String> texts) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String text : texts) {
+            List<String> tokens = InvertedIndex.tokenize(text);
+            for (int i = 0; i < tokens.size(); i++) {
+                keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+            }
+            if (tokens.size() > 1) {
+                keys.add(String.join("", tokens));
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+}
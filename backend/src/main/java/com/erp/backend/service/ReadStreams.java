@@ -0,0 +1,50 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+
+// Adapts the blocking keyset-paged reads to Flux/Mono for the streaming endpoints. A stream
+// reads its next page only when the subscriber has asked for more rows, so a slow client holds
+// back its own reads instead of buffering the whole table in memory.
+@Component
+public class ReadStreams {
+
+    @Autowired
+    @Qualifier("readScheduler")
+    private Scheduler readScheduler;
+
+    @Value("${read-stream.page-size:200}")
+    private int pageSize;
+
+    // All rows of a keyset-paginated list. fetchPage is called with a cursor (null for the first
+    // page, then each page's nextCursor) and the page size. Rows are written out after their
+    // page's session has closed, so every association they serialize must be fetched with them.
+    public <T> Flux<T> pages(BiFunction<String, Integer, CursorPage<T>> fetchPage) {
+        return Flux.<CursorPage<T>, Optional<CursorPage<T>>>generate(Optional::empty, (previous, sink) -> {
+                    if (previous.isPresent() && !previous.get().hasMore()) {
+                        sink.complete();
+                        return previous;
+                    }
+                    CursorPage<T> page = fetchPage.apply(previous.map(CursorPage::nextCursor).orElse(null), pageSize);
+                    sink.next(page);
+                    return Optional.of(page);
+                })
+                .concatMapIterable(CursorPage::items, 1)
+                .subscribeOn(readScheduler);
+    }
+
+    // A single blocking read
+    public <T> Mono<T> read(Callable<T> read) {
+        return Mono.fromCallable(read).subscribeOn(readScheduler);
+    }
+}
@@ -0,0 +1,274 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.Suggestion;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Search and typeahead indexes for students and courses. StudentService, CourseService and the
+// bulk upserts report every write here (applied after commit); the indexes are loaded from the
+// database at startup and reloaded periodically to pick up writes made by other instances.
+@Component
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    // Rows between persistence context clears while loading
+    private static final int LOAD_CLEAR_INTERVAL = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${search.suggest-limit:10}")
+    private int suggestLimit;
+
+    private final IndexHolder students = new IndexHolder("students");
+    private final IndexHolder courses = new IndexHolder("courses");
+
+    public void studentChanged(Student student) {
+        Long id = student.getId();
+        List<InvertedIndex.Field> fields = studentFields(student);
+        String label = studentLabel(student);
+        List<String> keys = studentKeys(student);
+        AfterCommit.run(() -> students.apply(indexes -> indexes.put(id, fields, label, keys)));
+    }
+
+    public void studentRemoved(Long id) {
+        AfterCommit.run(() -> students.apply(indexes -> indexes.remove(id)));
+    }
+
+    public void courseChanged(Course course) {
+        Long id = course.getId();
+        List<InvertedIndex.Field> fields = courseFields(course);
+        String label = courseLabel(course);
+        List<String> keys = courseKeys(course);
+        AfterCommit.run(() -> courses.apply(indexes -> indexes.put(id, fields, label, keys)));
+    }
+
+    public void courseRemoved(Long id) {
+        AfterCommit.run(() -> courses.apply(indexes -> indexes.remove(id)));
+    }
+
+    // Ranked student ids, or empty if the index has not finished loading
+    public Optional<List<Long>> searchStudents(String query, Integer limit) {
+        return search(students, query, limit);
+    }
+
+    // Ranked course ids, or empty if the index has not finished loading
+    public Optional<List<Long>> searchCourses(String query, Integer limit) {
+        return search(courses, query, limit);
+    }
+
+    // Typeahead entries for students, or empty if the index has not finished loading
+    public Optional<List<Suggestion>> suggestStudents(String prefix, Integer limit) {
+        return suggest(students, prefix, limit);
+    }
+
+    // Typeahead entries for courses, or empty if the index has not finished loading
+    public Optional<List<Suggestion>> suggestCourses(String prefix, Integer limit) {
+        return suggest(courses, prefix, limit);
+    }
+
+    public int resolveLimit(Integer limit) {
+        return resolveLimit(limit, defaultLimit);
+    }
+
+    public int resolveSuggestLimit(Integer limit) {
+        return resolveLimit(limit, suggestLimit);
+    }
+
+    private int resolveLimit(Integer limit, int fallback) {
+        if (limit == null || limit <= 0) {
+            return fallback;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private Optional<List<Long>> search(IndexHolder holder, String query, Integer limit) {
+        InvertedIndex index = holder.live.search;
+        if (!index.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query, resolveLimit(limit)));
+    }
+
+    private Optional<List<Suggestion>> suggest(IndexHolder holder, String prefix, Integer limit) {
+        PrefixSuggester suggester = holder.live.suggest;
+        if (!suggester.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(suggester.suggest(prefix, resolveSuggestLimit(limit)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    // Reload both indexes from the database; searches keep using the old index meanwhile
+    @Scheduled(initialDelayString = "${search.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        load(students, studentRepository::streamAllForExport, (indexes, student) -> indexes.load(
+                student.getId(), studentFields(student), studentLabel(student), studentKeys(student)));
+        load(courses, courseRepository::streamAllForExport, (indexes, course) -> indexes.load(
+                course.getId(), courseFields(course), courseLabel(course), courseKeys(course)));
+    }
+
+    private <T> void load(IndexHolder holder, Supplier<Stream<T>> source, BiConsumer<Indexes, T> loader) {
+        long start = System.currentTimeMillis();
+        Indexes fresh = holder.startBuilding();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = source.get()) {
+                    int count = 0;
+                    for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); ) {
+                        T row = iterator.next();
+                        loader.accept(fresh, row);
+                        if (++count % LOAD_CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+            holder.finishBuilding();
+            log.info("Loaded {} search index: {} documents in {} ms",
+                    holder.name, fresh.search.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            holder.abortBuilding();
+            log.warn("Loading {} search index failed: {}", holder.name, e.getMessage());
+        }
+    }
+
+    private List<InvertedIndex.Field> studentFields(Student student) {
+        return List.of(
+                InvertedIndex.Field.identifier(student.getStudentId(), 3.0f),
+                InvertedIndex.Field.text(student.getFirstName(), 2.0f),
+                InvertedIndex.Field.text(student.getLastName(), 2.0f),
+                InvertedIndex.Field.identifier(student.getEmail(), 1.5f),
+                InvertedIndex.Field.text(student.getMajor(), 1.0f));
+    }
+
+    private List<InvertedIndex.Field> courseFields(Course course) {
+        return List.of(
+                InvertedIndex.Field.identifier(course.getCode(), 3.0f),
+                InvertedIndex.Field.text(course.getTitle(), 2.0f),
+                InvertedIndex.Field.text(course.getDepartment(), 1.0f),
+                InvertedIndex.Field.text(course.getDescription(), 0.5f));
+    }
+
+    String studentLabel(Student student) {
+        return student.getFirstName() + " " + student.getLastName() + " (" + student.getStudentId() + ")";
+    }
+
+    private List<String> studentKeys(Student student) {
+        return Arrays.asList(student.getFirstName() + " " + student.getLastName(),
+                student.getStudentId(), student.getEmail());
+    }
+
+    String courseLabel(Course course) {
+        return course.getCode() + " - " + course.getTitle();
+    }
+
+    private List<String> courseKeys(Course course) {
+        return Arrays.asList(course.getCode(), course.getTitle());
+    }
+
+    // The search index and typeahead for one entity, loaded and replaced together
+    private static class Indexes {
+        private final InvertedIndex search = new InvertedIndex();
+        private final PrefixSuggester suggest = new PrefixSuggester();
+
+        void put(Long id, List<InvertedIndex.Field> fields, String label, List<String> keys) {
+            search.put(id, fields);
+            suggest.put(id, label, keys);
+        }
+
+        void remove(Long id) {
+            search.remove(id);
+            suggest.remove(id);
+        }
+
+        void load(Long id, List<InvertedIndex.Field> fields, String label, List<String> keys) {
+            search.load(id, fields);
+            suggest.load(id, label, keys);
+        }
+    }
+
+    // The indexes serving requests, plus the ones being loaded during a rebuild. Incremental writes
+    // go to both, so nothing written during a rebuild is lost when the new indexes are swapped in.
+    private static class IndexHolder {
+        private final String name;
+        private volatile Indexes live = new Indexes();
+        private Indexes building;
+
+        IndexHolder(String name) {
+            this.name = name;
+        }
+
+        synchronized void apply(Consumer<Indexes> write) {
+            write.accept(live);
+            if (building != null) {
+                write.accept(building);
+            }
+        }
+
+        synchronized Indexes startBuilding() {
+            building = new Indexes();
+            building.search.beginRebuild();
+            building.suggest.beginRebuild();
+            return building;
+        }
+
+        synchronized void finishBuilding() {
+            building.search.finishRebuild();
+            building.suggest.finishRebuild();
+            live = building;
+            building = null;
+        }
+
+        synchronized void abortBuilding() {
+            if (building != null) {
+                building.search.abortRebuild();
+                building.suggest.abortRebuild();
+                building = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.erp.backend.service;
+
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.repository.CourseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Seat accounting for course capacity. Seats live in Course.seatsTaken and are only changed by
+// conditional UPDATEs, so the database row lock serialises concurrent claims on one course and
+// a claim on a full course simply affects no rows. Callers run inside the transaction that
+// writes the enrollment, so a failed insert gives the seat back on rollback.
+@Component
+public class SeatAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAllocator.class);
+
+    private static final List<Enrollment.EnrollmentStatus> FREE_STATUSES = Arrays.stream(Enrollment.EnrollmentStatus.values())
+            .filter(status -> !status.holdsSeat())
+            .toList();
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private WaitlistPromoter waitlistPromoter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CourseCatalogCache catalogCache;
+
+    // Seat claims by outcome; "full" counts requests that lost to a full course, and retries
+    // count bulk claims that raced another writer between reading and claiming
+    private Counter claimsGranted;
+    private Counter claimsFull;
+    private Counter claimRetries;
+
+    @PostConstruct
+    void registerMeters() {
+        claimsGranted = Counter.builder("enrollment.seat.claims").tag("outcome", "granted").register(meterRegistry);
+        claimsFull = Counter.builder("enrollment.seat.claims").tag("outcome", "full").register(meterRegistry);
+        claimRetries = Counter.builder("enrollment.seat.claim.retries").register(meterRegistry);
+    }
+
+    // Status a new enrollment actually gets: the requested one if a seat could be claimed,
+    // WAITLISTED when the course is full
+    public Enrollment.EnrollmentStatus admit(Long courseId, Enrollment.EnrollmentStatus requested) {
+        if (!requested.holdsSeat()) {
+            return requested;
+        }
+        if (courseRepository.claimSeats(courseId, 1) == 1) {
+            claimsGranted.increment();
+            catalogCache.seatsChanged(courseId);
+            return requested;
+        }
+        claimsFull.increment();
+        return Enrollment.EnrollmentStatus.WAITLISTED;
+    }
+
+    // Move an existing enrollment's seat when its course or status changes.
+    // Throws when the new course has no free seat.
+    public void transfer(Long oldCourseId, Enrollment.EnrollmentStatus oldStatus,
+                         Long newCourseId, Enrollment.EnrollmentStatus newStatus) {
+        boolean heldSeat = oldStatus != null && oldStatus.holdsSeat();
+        boolean needsSeat = newStatus != null && newStatus.holdsSeat();
+        if (heldSeat == needsSeat && Objects.equals(oldCourseId, newCourseId)) {
+            return;
+        }
+        if (needsSeat) {
+            if (courseRepository.claimSeats(newCourseId, 1) == 0) {
+                claimsFull.increment();
+                throw new RuntimeException("Course is full");
+            }
+            claimsGranted.increment();
+            catalogCache.seatsChanged(newCourseId);
+        }
+        if (heldSeat) {
+            courseRepository.releaseSeats(oldCourseId, 1);
+            catalogCache.seatsChanged(oldCourseId);
+            waitlistPromoter.seatFreed(oldCourseId);
+        }
+    }
+
+    // Give back the seat of an enrollment that is being deleted
+    public void release(Long courseId, Enrollment.EnrollmentStatus status) {
+        if (status != null && status.holdsSeat()) {
+            courseRepository.releaseSeats(courseId, 1);
+            catalogCache.seatsChanged(courseId);
+            waitlistPromoter.seatFreed(courseId);
+        }
+    }
+
+    // A larger (or removed) capacity opens seats for the waitlist
+    public void capacityChanged(Long courseId, Integer oldCapacity, Integer newCapacity) {
+        if (oldCapacity != null && (newCapacity == null || newCapacity > oldCapacity)) {
+            waitlistPromoter.seatFreed(courseId);
+        }
+    }
+
+    // Claim up to `wanted` seats at once (bulk import); returns how many were claimed
+    public int claimUpTo(Long courseId, int wanted) {
+        while (wanted > 0) {
+            Integer free = courseRepository.findFreeSeats(courseId);
+            int seats = free == null ? wanted : Math.min(wanted, free);
+            if (seats <= 0) {
+                return 0;
+            }
+            if (courseRepository.claimSeats(courseId, seats) == 1) {
+                claimsGranted.increment(seats);
+                catalogCache.seatsChanged(courseId);
+                return seats;
+            }
+            // Someone else took seats between the read and the claim; look again
+            claimRetries.increment();
+        }
+        return 0;
+    }
+
+    // seatsTaken is new; fill it in for databases that already hold enrollments
+    @EventListener(ApplicationReadyEvent.class)
+    public void recount() {
+        int courses = courseRepository.recountSeatsTaken(FREE_STATUSES);
+        log.debug("Recounted seats for {} courses", courses);
+        catalogCache.clear();
+    }
+}
@@ -1,28 +1,59 @@
 package com.erp.backend.service;
 
+import com.erp.backend.config.AuthenticatedUser;
+import com.erp.backend.dto.CursorPage;
+import com.erp.backend.dto.Suggestion;
 import com.erp.backend.entity.Student;
 import com.erp.backend.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.method", histogram = true)
 public class StudentService {
     
+    // Properties the student list can be sorted by (all indexed)
+    private static final Map<String, Class<?>> SORTABLE = Map.of(
+            "id", Long.class,
+            "studentId", String.class);
+
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private SearchIndexService searchIndex;
+    
     // Get all students
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    // Get one page of students, optionally filtered by major and year level
+    public CursorPage<Student> getStudentsPage(String major, Integer yearLevel, String sort, String cursor, Integer limit) {
+        Specification<Student> spec = (root, query, cb) -> cb.conjunction();
+        if (major != null && !major.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("major"), major));
+        }
+        if (yearLevel != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("yearLevel"), yearLevel));
+        }
+        return keysetPager.page(studentRepository, spec, SORTABLE, sort, cursor, limit);
+    }
+
     // Get all students based on user role - ADMIN/LECTURER see ALL details
     public List<Student> getAllStudentsBasedOnRole(Authentication authentication) {
         if (hasAdminOrStaffRole(authentication)) {
@@ -52,8 +83,7 @@ public class StudentService {
             return student; // Return complete student object with ALL fields
         } else if (hasStudentRole(authentication)) {
             // Students can only see their own full details, limited info for others
-            String userEmail = authentication.getName();
-            if (student.getEmail() != null && student.getEmail().equals(userEmail)) {
+            if (EnrollmentService.isOwnStudent(student, authentication)) {
                 return student; // Own profile - full details
             } else {
                 return createLimitedStudentInfo(student); // Others - limited info
@@ -75,10 +105,7 @@ public class StudentService {
                 throw new RuntimeException("Student not found");
             }
             
-            Student existingStudent = studentOpt.get();
-            String userEmail = authentication.getName();
-            
-            if (existingStudent.getEmail() != null && existingStudent.getEmail().equals(userEmail)) {
+            if (EnrollmentService.isOwnStudent(studentOpt.get(), authentication)) {
                 return updateStudent(id, studentDetails);
             } else {
                 throw new RuntimeException("Access denied: You can only update your own profile");
@@ -103,16 +130,11 @@ public class StudentService {
 
     // Helper methods to check roles
     private boolean hasAdminOrStaffRole(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> 
-                    authority.getAuthority().equals("ROLE_ADMIN") || 
-                    authority.getAuthority().equals("ROLE_LECTURER") ||
-                    authority.getAuthority().equals("ROLE_STAFF"));
+        return AuthenticatedUser.from(authentication).isStaff();
     }
 
     private boolean hasStudentRole(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_STUDENT"));
+        return AuthenticatedUser.from(authentication).isStudent();
     }
     
     // Get student by ID
@@ -140,9 +162,35 @@ public class StudentService {
         return studentRepository.findByYearLevel(yearLevel);
     }
     
-    // Search students by name
+    // Search students by name, student ID, email and major, best match first
     public List<Student> searchStudentsByName(String name) {
-        return studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
+        return searchStudentsByName(name, null);
+    }
+    
+    public List<Student> searchStudentsByName(String name, Integer limit) {
+        Optional<List<Long>> ranked = searchIndex.searchStudents(name, limit);
+        if (ranked.isEmpty()) {
+            // Index still loading: fall back to the database
+            return studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name)
+                    .stream().limit(searchIndex.resolveLimit(limit)).collect(Collectors.toList());
+        }
+        return inRankOrder(ranked.get(), studentRepository.findAllById(ranked.get()));
+    }
+    
+    // Typeahead: up to `limit` students whose name, student ID or email starts with the prefix
+    public List<Suggestion> suggestStudents(String prefix, Integer limit) {
+        return searchIndex.suggestStudents(prefix, limit).orElseGet(() ->
+                // Index still loading: fall back to the database
+                studentRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(prefix, prefix)
+                        .stream()
+                        .limit(searchIndex.resolveSuggestLimit(limit))
+                        .map(student -> new Suggestion(student.getId(), searchIndex.studentLabel(student)))
+                        .collect(Collectors.toList()));
+    }
+    
+    private static List<Student> inRankOrder(List<Long> ids, List<Student> students) {
+        Map<Long, Student> byId = students.stream().collect(Collectors.toMap(Student::getId, s -> s));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
     
     // Create new student
@@ -162,7 +210,9 @@ public class StudentService {
             student.setEnrollmentDate(LocalDate.now());
         }
         
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        searchIndex.studentChanged(saved);
+        return saved;
     }
     
     // Update existing student
@@ -193,7 +243,9 @@ public class StudentService {
         student.setMajor(studentDetails.getMajor());
         student.setYearLevel(studentDetails.getYearLevel());
         
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        searchIndex.studentChanged(saved);
+        return saved;
     }
     
     // Delete student
@@ -201,6 +253,7 @@ public class StudentService {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
         studentRepository.delete(student);
+        searchIndex.studentRemoved(id);
     }
     
     // Check if student exists
@@ -0,0 +1,151 @@
+package com.erp.backend.service;
+
+import com.erp.backend.entity.RevokedToken;
+import com.erp.backend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ids (jti) of tokens revoked before they expired: rotated refresh tokens and logged-out
+// sessions. A revoked id only matters until its token expires, so ids are kept in a ring of
+// per-minute buckets keyed by expiry minute; a lookup touches the one bucket the token's own
+// expiry points at, and a bucket is simply reused once its minute has passed. Revocations are
+// also written to revoked_tokens, which is reloaded at startup and polled for revocations made
+// by other instances.
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final long MINUTE_MS = 60_000;
+
+    private record Bucket(long minute, Set<String> ids) {
+    }
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    // One slot per minute of the longest token lifetime, plus slack for clock rounding
+    private AtomicReferenceArray<Bucket> ring;
+
+    // Tokens expiring beyond the ring's span (issued under a longer lifetime setting)
+    private final Map<String, Long> overflow = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @PostConstruct
+    void init() {
+        ring = new AtomicReferenceArray<>((int) (refreshExpirationMs / MINUTE_MS) + 2);
+        Instant now = Instant.now();
+        int loaded = 0;
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            remember(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+            loaded++;
+        }
+        lastSync = now;
+        log.info("Loaded {} token revocations", loaded);
+    }
+
+    // Whether the token with this id and expiry (epoch millis) was revoked
+    public boolean isRevoked(String tokenId, long expiresAtMs) {
+        if (tokenId == null) {
+            return false;
+        }
+        long minute = expiresAtMs / MINUTE_MS;
+        if (minute - currentMinute() < ring.length()) {
+            Bucket bucket = ring.get(slot(minute));
+            if (bucket != null && bucket.minute() == minute && bucket.ids().contains(tokenId)) {
+                return true;
+            }
+        }
+        return !overflow.isEmpty() && overflow.containsKey(tokenId);
+    }
+
+    // Revokes the token and records it; false if it was already revoked (or has expired anyway)
+    public boolean revoke(String tokenId, long expiresAtMs) {
+        if (tokenId == null || expiresAtMs <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (!remember(tokenId, expiresAtMs)) {
+            return false;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, Instant.ofEpochMilli(expiresAtMs), Instant.now()));
+        return true;
+    }
+
+    // Picks up revocations other instances recorded, and drops buckets whose minute has passed
+    @Scheduled(initialDelayString = "${jwt.revocation.sync-interval-ms:30000}",
+               fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        Instant now = Instant.now();
+        // Overlap the previous window a little so a row committed late is not missed
+        Instant since = lastSync.minusSeconds(5);
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            remember(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+        }
+        lastSync = now;
+
+        long minute = currentMinute();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.minute() < minute) {
+                ring.compareAndSet(i, bucket, null);
+            }
+        }
+        overflow.values().removeIf(expiresAtMs -> expiresAtMs <= now.toEpochMilli());
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.purge-interval-ms:3600000}",
+               fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private boolean remember(String tokenId, long expiresAtMs) {
+        long minute = expiresAtMs / MINUTE_MS;
+        long current = currentMinute();
+        if (minute < current) {
+            // Already expired; its slot may belong to a later minute by now
+            return false;
+        }
+        if (minute - current >= ring.length()) {
+            return overflow.putIfAbsent(tokenId, expiresAtMs) == null;
+        }
+        int slot = slot(minute);
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.minute() == minute) {
+                return bucket.ids().add(tokenId);
+            }
+            // Empty, or left over from a minute that has passed
+            Bucket fresh = new Bucket(minute, ConcurrentHashMap.newKeySet());
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh.ids().add(tokenId);
+            }
+        }
+    }
+
+    private int slot(long minute) {
+        return (int) (minute % ring.length());
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MINUTE_MS;
+    }
+}
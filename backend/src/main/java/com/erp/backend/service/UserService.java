@@ -1,11 +1,17 @@
 package com.erp.backend.service;
 
+import com.erp.backend.config.JwtService;
 import com.erp.backend.entity.User;
 import com.erp.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,11 +20,15 @@ import com.erp.backend.entity.Student;
 import com.erp.backend.repository.StudentRepository;
 import com.erp.backend.controller.AuthController;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
     
@@ -28,7 +38,42 @@ public class UserService implements UserDetailsService {
     @Autowired
     private StudentRepository studentRepository;
 
-    public User save(User user) { return userRepository.save(user); }
+    @Value("${auth.user-cache-size:10000}")
+    private long userCacheSize;
+
+    // Bounds how long another instance's role or password change can go unnoticed here
+    @Value("${auth.user-cache-ttl:5m}")
+    private Duration userCacheTtl;
+
+    // Users loaded for authentication, so authenticated requests don't each query the users table
+    private Cache<String, UserDetails> userDetailsCache;
+
+    private final AtomicLong passwordsRehashed = new AtomicLong();
+
+    @PostConstruct
+    void initUserDetailsCache() {
+        userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .expireAfterWrite(userCacheTtl)
+                .build();
+    }
+
+    // Every change to a user (role, password) goes through here
+    public User save(User user) {
+        User saved = userRepository.save(user);
+        evictUserDetails(saved.getUsername());
+        return saved;
+    }
+
+    // Drop the cached UserDetails now and again once the current transaction commits, so a
+    // concurrent request cannot re-cache the old row in between
+    public void evictUserDetails(String username) {
+        if (username == null) {
+            return;
+        }
+        userDetailsCache.invalidate(username);
+        AfterCommit.run(() -> userDetailsCache.invalidate(username));
+    }
 
     public User findByUsernameOrThrow(String username) {
         return userRepository.findByUsername(username)
@@ -37,11 +82,44 @@ public class UserService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = userDetailsCache.get(username, this::loadFromDatabase);
+        // Hand out a copy: authentication erases the password on the instance it returns
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         User user = findByUsernameOrThrow(username);
         Collection<? extends GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
         return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), authorities);
     }
 
+    // Claims to put in a login token: the role and, for students, their Student primary key
+    public Map<String, Object> tokenClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.ROLE_CLAIM, user.getRole());
+        if ("STUDENT".equals(user.getRole())) {
+            studentRepository.findIdByEmail(user.getUsername())
+                    .ifPresent(id -> claims.put(JwtService.STUDENT_ID_CLAIM, id));
+        }
+        return claims;
+    }
+
+    // Called after a successful login whose stored hash uses outdated parameters
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = findByUsernameOrThrow(userDetails.getUsername());
+        user.setPassword(newEncodedPassword);
+        save(user);
+        passwordsRehashed.incrementAndGet();
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newEncodedPassword)
+                .build();
+    }
+
+    public long getPasswordsRehashed() {
+        return passwordsRehashed.get();
+    }
+
     public boolean existsByUsername(String username) {
         return userRepository.findByUsername(username).isPresent();
     }
@@ -53,7 +131,7 @@ public class UserService implements UserDetailsService {
         user.setRole(request.getRole());
         
         // Save the user first
-        User savedUser = userRepository.save(user);
+        User savedUser = save(user);
         
         // If it's a student, create student profile
         if ("STUDENT".equals(request.getRole())) {
@@ -0,0 +1,170 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.WaitlistStats;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Promotes waitlisted students when a seat frees up. The transaction that frees the seat only
+// queues the course id (after commit); promotion itself runs on the waitlistExecutor, so drops
+// return immediately. Work is coalesced per course, and anything the bounded queue rejects is
+// picked up by the periodic sweep.
+@Component
+public class WaitlistPromoter {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromoter.class);
+
+    // How many waitlist entries to read per attempt, in case another promoter takes the first
+    private static final int HEAD_SIZE = 5;
+
+    private enum Step { PROMOTED, RETRY, DONE }
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    @Autowired
+    private CourseCatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("waitlistExecutor")
+    private ThreadPoolTaskExecutor waitlistExecutor;
+
+    // Courses with promotion work queued, mapped to when the first unprocessed seat was freed
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    // Promotion runs queued or executing
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong seatsFreed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong promoted = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    // A seat in the course was released or added; promote once the current transaction commits
+    public void seatFreed(Long courseId) {
+        seatsFreed.incrementAndGet();
+        long freedAt = System.nanoTime();
+        AfterCommit.run(() -> enqueue(courseId, freedAt));
+    }
+
+    private void enqueue(Long courseId, long freedAt) {
+        if (pending.putIfAbsent(courseId, freedAt) != null) {
+            // Already queued; that run will fill this seat too
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            waitlistExecutor.execute(() -> promote(courseId));
+        } catch (TaskRejectedException e) {
+            inFlight.decrementAndGet();
+            pending.remove(courseId);
+            rejected.incrementAndGet();
+            log.warn("Waitlist queue full, course {} left for the next sweep", courseId);
+        }
+    }
+
+    // Fill the course's free seats from its waitlist, oldest first
+    void promote(Long courseId) {
+        Long freedAt = pending.remove(courseId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            Step step;
+            do {
+                step = transaction.execute(status -> promoteNext(courseId, status));
+                if (step == Step.PROMOTED) {
+                    promoted.incrementAndGet();
+                    if (freedAt != null) {
+                        long latency = System.nanoTime() - freedAt;
+                        totalLatencyNanos.addAndGet(latency);
+                        maxLatencyNanos.accumulate(latency);
+                    }
+                }
+            } while (step != Step.DONE);
+        } catch (RuntimeException e) {
+            log.warn("Waitlist promotion for course {} failed: {}", courseId, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private Step promoteNext(Long courseId, TransactionStatus status) {
+        List<Long> head = enrollmentRepository.findWaitlistHead(
+                courseId, Enrollment.EnrollmentStatus.WAITLISTED, PageRequest.of(0, HEAD_SIZE));
+        if (head.isEmpty() || courseRepository.claimSeats(courseId, 1) == 0) {
+            return Step.DONE;
+        }
+        for (Long enrollmentId : head) {
+            int moved = enrollmentRepository.transitionStatus(
+                    enrollmentId, Enrollment.EnrollmentStatus.WAITLISTED, Enrollment.EnrollmentStatus.ENROLLED);
+            if (moved == 1) {
+                // The score does not change, so passing null for both sides leaves score totals alone
+                dashboardCounters.enrollmentChanged(
+                        Enrollment.EnrollmentStatus.WAITLISTED, null, Enrollment.EnrollmentStatus.ENROLLED, null);
+                enrollmentRepository.findById(enrollmentId).ifPresent(enrollment -> auditLog.record(
+                        EnrollmentEvent.Type.STATUS_CHANGED, enrollment, Enrollment.EnrollmentStatus.WAITLISTED,
+                        enrollment.getGrade(), enrollment.getScore()));
+                catalogCache.seatsChanged(courseId);
+                return Step.PROMOTED;
+            }
+        }
+        // Every entry we read was promoted or dropped concurrently; hand the seat back and look again
+        status.setRollbackOnly();
+        return Step.RETRY;
+    }
+
+    // Catch up on work the queue rejected or a restart lost
+    @Scheduled(initialDelayString = "${waitlist.sweep-interval-ms:60000}",
+               fixedDelayString = "${waitlist.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Long courseId : enrollmentRepository.findCoursesWithPromotableWaitlist(Enrollment.EnrollmentStatus.WAITLISTED)) {
+            enqueue(courseId, now);
+        }
+    }
+
+    public WaitlistStats stats() {
+        long count = promoted.get();
+        return new WaitlistStats(
+                waitlistExecutor.getThreadPoolExecutor().getQueue().size(),
+                waitlistExecutor.getQueueCapacity(),
+                inFlight.get(),
+                seatsFreed.get(),
+                rejected.get(),
+                count,
+                count > 0 ? totalLatencyNanos.get() / 1_000_000.0 / count : 0,
+                maxLatencyNanos.get() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.erp.backend.config;
+
+import com.erp.backend.BackendApplication;
+import com.erp.backend.entity.Course;
+import com.erp.backend.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A database whose id sequence lags behind its rows (as after the move from IDENTITY columns) is
+// aligned while the EntityManagerFactory starts, before the first insert can draw a colliding id.
+class IdSequenceInitializerTest {
+
+    // Arguments rather than builder properties, which application.yml would override
+    private static final String[] ARGS = {
+            "--spring.datasource.url=jdbc:h2:mem:idsequences;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--server.port=0"
+    };
+
+    @Test
+    void laggingSequenceIsMovedPastExistingRows() {
+        long existingId;
+        try (ConfigurableApplicationContext context = start()) {
+            existingId = context.getBean(CourseRepository.class).save(course("SEQ1")).getId();
+            context.getBean(JdbcTemplate.class).execute("alter sequence courses_seq restart with 1");
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            Long next = context.getBean(JdbcTemplate.class).queryForObject("select next value for courses_seq", Long.class);
+            assertTrue(next >= existingId + Course.ID_ALLOCATION_SIZE, "courses_seq was not aligned: " + next);
+            assertTrue(context.getBean(CourseRepository.class).save(course("SEQ2")).getId() > existingId);
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .run(ARGS);
+    }
+
+    private static Course course(String code) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setTitle("Sequence " + code);
+        course.setCreatedDate(LocalDate.now());
+        return course;
+    }
+}
@@ -0,0 +1,159 @@
+package com.erp.backend.config;
+
+import com.erp.backend.entity.User;
+import com.erp.backend.repository.RevokedTokenRepository;
+import com.erp.backend.repository.UserRepository;
+import com.erp.backend.service.TokenRevocationList;
+import com.erp.backend.service.UserService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Per-request cost of authenticating a bearer token: the old path (two signature-verifying parses
+// plus a users-table lookup on every request) against JwtAuthFilter with its caches warm.
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class JwtAuthOverheadBenchmarkTest {
+
+    private static final String SECRET = "mySecureSecretKeyThatIsAtLeast32CharactersLongForHS256Algorithm";
+    // The secret read as base64, like the String overload of the deprecated parser did
+    private static final Key LEGACY_KEY = new SecretKeySpec(Decoders.BASE64.decode(SECRET), SignatureAlgorithm.HS256.getJcaName());
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 100_000;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedFilterPathIsCheaperThanParsingTwicePerRequest() throws Exception {
+        AtomicInteger userQueries = new AtomicInteger();
+        User admin = new User();
+        admin.setUsername("admin");
+        admin.setPassword("{noop}admin");
+        admin.setRole("ADMIN");
+        UserRepository users = mock(UserRepository.class);
+        when(users.findByUsername(anyString())).thenAnswer(invocation -> {
+            userQueries.incrementAndGet();
+            return Optional.of(admin);
+        });
+
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", users);
+        ReflectionTestUtils.setField(userService, "userCacheSize", 10_000L);
+        ReflectionTestUtils.setField(userService, "userCacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(userService, "initUserDetailsCache");
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 10_000L);
+        ReflectionTestUtils.setField(jwtService, "revocationList", revocationList());
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        JwtAuthFilter filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userService);
+
+        String token = jwtService.generateToken(userService.loadUserByUsername("admin"), Map.of("role", "ADMIN"));
+        userQueries.set(0);
+
+        // What each request used to cost: load the user, then isTokenValid parsing the token twice
+        long[] legacy = measure(() -> {
+            UserDetails user = userDetailsFromDatabase(users);
+            // A parser built per call, as JwtService used to
+            String subject = Jwts.parserBuilder().setSigningKey(LEGACY_KEY).build().parseClaimsJws(token).getBody().getSubject();
+            boolean expired = Jwts.parserBuilder().setSigningKey(LEGACY_KEY).build().parseClaimsJws(token).getBody()
+                    .getExpiration().before(new java.util.Date());
+            assertTrue(subject.equals(user.getUsername()) && !expired);
+        });
+        int legacyQueries = userQueries.getAndSet(0);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/enrollments");
+        request.addHeader("Authorization", "Bearer " + token);
+        FilterChain chain = (req, res) -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertNotNull(authentication);
+            assertEquals("admin", authentication.getName());
+        };
+        long[] cached = measure(() -> {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            // OncePerRequestFilter marks the request; clear it so every iteration runs the filter
+            request.removeAttribute(JwtAuthFilter.class.getName() + ".FILTERED");
+        });
+        int cachedQueries = userQueries.get();
+
+        System.out.printf("auth per request, legacy: p50=%dus p99=%dus, %d user queries%n",
+                legacy[0], legacy[1], legacyQueries);
+        System.out.printf("auth per request, cached: p50=%dus p99=%dus, %d user queries%n",
+                cached[0], cached[1], cachedQueries);
+
+        assertEquals(WARMUP + MEASURED, legacyQueries);
+        // The user was loaded once already, to issue the token
+        assertEquals(0, cachedQueries);
+        assertTrue(cached[0] < legacy[0], "cached p50 " + cached[0] + "us not below legacy p50 " + legacy[0] + "us");
+    }
+
+    private static TokenRevocationList revocationList() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        TokenRevocationList revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(revocationList, "refreshExpirationMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(revocationList, "init");
+        return revocationList;
+    }
+
+    private static UserDetails userDetailsFromDatabase(UserRepository users) {
+        User user = users.findByUsername("admin").orElseThrow();
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+                .password(user.getPassword()).roles(user.getRole()).build();
+    }
+
+    // p50 and p99 in microseconds
+    private static long[] measure(ThrowingRunnable action) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new long[]{nanos[MEASURED / 2] / 1000, nanos[MEASURED * 99 / 100] / 1000};
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
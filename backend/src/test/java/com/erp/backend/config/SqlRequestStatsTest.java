@@ -0,0 +1,54 @@
+package com.erp.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlRequestStatsTest {
+
+    @AfterEach
+    void clear() {
+        SqlRequestStats.end();
+    }
+
+    @Test
+    void groupsStatementsThatDifferOnlyInLiteralsAndInListLength() {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        stats.statementExecuted("select * from students s where s.id in (?, ?)", 1_000);
+        stats.statementExecuted("select * from students s where s.id in (?,?,?)", 2_000);
+        stats.statementExecuted("select * from courses c1_0 where c1_0.id = 42", 5_000);
+        stats.statementExecuted("select * from courses c1_0 where c1_0.id = 43", 5_000);
+        stats.rowFetched();
+
+        List<SqlRequestStats.Breakdown> breakdown = stats.breakdown();
+        assertEquals(2, breakdown.size());
+        assertEquals("select * from courses c1_0 where c1_0.id = ?", breakdown.get(0).sql());
+        assertEquals(2, breakdown.get(0).count());
+        assertEquals("select * from students s where s.id in (?)", breakdown.get(1).sql());
+        assertEquals(4, stats.statements());
+        assertEquals(1, stats.rows());
+        assertEquals(13_000, stats.nanos());
+    }
+
+    @Test
+    void propagatedTasksRecordIntoTheSubmittingRequest() throws Exception {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(SqlRequestStats.propagate(() ->
+                    SqlRequestStats.current().statementExecuted("select 1", 10))).get();
+            executor.submit(() -> assertNull(SqlRequestStats.current())).get();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, stats.statements());
+        assertSame(stats, SqlRequestStats.current());
+    }
+}
@@ -0,0 +1,105 @@
+package com.erp.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The session flow the frontend relies on: a stale or revoked access token is answered with 401
+// (not served anonymously), and the refresh token trades once for a working pair.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sessions;DB_CLOSE_DELAY=-1",
+        "auth.password.bcrypt-strength=4"
+})
+@AutoConfigureMockMvc
+class AuthSessionTest {
+
+    private static final String PASSWORD = "session-pass";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JsonNode session;
+
+    @BeforeEach
+    void login() throws Exception {
+        String username = "admin-" + UUID.randomUUID();
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("username", username, "password", PASSWORD, "role", "ADMIN"))))
+                .andExpect(status().isOk());
+        MvcResult started = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("username", username, "password", PASSWORD))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+        session = objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void invalidAccessTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/history/stats").header(HttpHeaders.AUTHORIZATION, bearer(session.path("token").asText())))
+                .andExpect(status().isOk());
+        // A refresh token is not an access token
+        mockMvc.perform(get("/api/courses").header(HttpHeaders.AUTHORIZATION, bearer(session.path("refreshToken").asText())))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+        // Without a token the public endpoints still answer
+        mockMvc.perform(get("/api/courses")).andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshTokenTradesOnceForAWorkingPair() throws Exception {
+        String refreshToken = session.path("refreshToken").asText();
+        MvcResult refreshed = mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        // A stale access token on the refresh call itself is ignored
+                        .header(HttpHeaders.AUTHORIZATION, bearer("stale"))
+                        .content(json(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode pair = objectMapper.readTree(refreshed.getResponse().getContentAsString());
+
+        mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/history/stats").header(HttpHeaders.AUTHORIZATION, bearer(pair.path("token").asText())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void loggedOutAccessTokenIsUnauthorized() throws Exception {
+        String token = session.path("token").asText();
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("refreshToken", session.path("refreshToken").asText()))))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/courses").header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String json(Map<String, String> body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
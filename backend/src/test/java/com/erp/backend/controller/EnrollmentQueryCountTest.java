@@ -0,0 +1,161 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statements issued per enrollment endpoint. Each must stay constant however many enrollments
+// there are: no per-row loads of a student or course while building or serializing the response.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+        // Keep background jobs from querying while statements are being counted
+        "waitlist.sweep-interval-ms=3600000",
+        "jwt.revocation.sync-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class EnrollmentQueryCountTest {
+
+    private static final int STUDENTS = 12;
+    private static final int COURSES = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Statistics statistics;
+    private List<Student> students;
+    private List<Course> courses;
+    private List<Enrollment> enrollments;
+
+    @BeforeEach
+    void seed() {
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+
+        students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setStudentId("QC" + i);
+            student.setFirstName("Query");
+            student.setLastName("Count" + i);
+            student.setEmail("qc" + i + "@count.test");
+            student.setAddress("1 Long Street");
+            students.add(student);
+        }
+        students = studentRepository.saveAll(students);
+
+        courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setCode("QC" + i);
+            course.setTitle("Counting " + i);
+            course.setDescription("A long description that list responses should not carry");
+            course.setCredits(3);
+            course.setCreatedDate(LocalDate.now());
+            courses.add(course);
+        }
+        courses = courseRepository.saveAll(courses);
+
+        enrollments = new ArrayList<>();
+        for (Student student : students) {
+            for (Course course : courses) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(student);
+                enrollment.setCourse(course);
+                enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+                enrollment.setEnrollmentDate(LocalDate.now());
+                enrollments.add(enrollment);
+            }
+        }
+        enrollments = enrollmentRepository.saveAll(enrollments);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void listAllIsOneStatement() throws Exception {
+        assertStatements(1, "/api/enrollments")
+                .andExpect(jsonPath("$.length()").value(STUDENTS * COURSES))
+                .andExpect(jsonPath("$[0].student.firstName").value("Query"))
+                .andExpect(jsonPath("$[0].course.code").exists())
+                .andExpect(jsonPath("$[0].student.address").doesNotExist())
+                .andExpect(jsonPath("$[0].course.description").doesNotExist());
+    }
+
+    @Test
+    void listByCourseIsTwoStatements() throws Exception {
+        // Course existence check, then the projection
+        assertStatements(2, "/api/enrollments/course/" + courses.get(0).getId())
+                .andExpect(jsonPath("$.length()").value(STUDENTS));
+    }
+
+    @Test
+    void listByStudentIsTwoStatements() throws Exception {
+        // Student id lookup, then the projection
+        assertStatements(2, "/api/enrollments/student/" + students.get(0).getStudentId())
+                .andExpect(jsonPath("$.length()").value(COURSES));
+    }
+
+    @Test
+    void waitlistIsOneStatement() throws Exception {
+        assertStatements(1, "/api/enrollments/course/" + courses.get(0).getId() + "/waitlist")
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void pageIsOneStatement() throws Exception {
+        assertStatements(1, "/api/enrollments/page?limit=20")
+                .andExpect(jsonPath("$.items.length()").value(20))
+                .andExpect(jsonPath("$.items[0].student.firstName").value("Query"))
+                .andExpect(jsonPath("$.items[0].course.title").exists());
+    }
+
+    @Test
+    void singleEnrollmentIsOneStatement() throws Exception {
+        assertStatements(1, "/api/enrollments/" + enrollments.get(0).getId())
+                .andExpect(jsonPath("$.student.studentId").value("QC0"))
+                .andExpect(jsonPath("$.course.code").value("QC0"));
+    }
+
+    private ResultActions assertStatements(long expected, String url) throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements for GET " + url);
+        return result;
+    }
+}
@@ -0,0 +1,192 @@
+package com.erp.backend.controller;
+
+import com.erp.backend.dto.DashboardSummary;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The streaming list endpoints return every row across several keyset pages, in order, as
+// newline-delimited JSON, and reject a bad sort or status before the response starts. Staff
+// dashboard subscribers share one summary per tick.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streams;DB_CLOSE_DELAY=-1",
+        // Small pages so every stream spans several of them; a quick dashboard tick
+        "read-stream.page-size=3",
+        "read-stream.dashboard-interval-ms=100"
+})
+@AutoConfigureMockMvc
+class StreamControllerTest {
+
+    private static final int COURSES = 10;
+    private static final int STUDENTS = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StreamController streamController;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private List<Course> courses;
+
+    @BeforeEach
+    void seed() {
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+
+        courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setCode(String.format("ST%02d", i));
+            course.setTitle("Streaming " + i);
+            course.setCredits(3);
+            course.setCreatedDate(LocalDate.now());
+            courses.add(course);
+        }
+        courses = courseRepository.saveAll(courses);
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setStudentId("ST" + i);
+            student.setFirstName("Stream");
+            student.setLastName("Reader" + i);
+            student.setEmail("st" + i + "@stream.test");
+            students.add(student);
+        }
+        students = studentRepository.saveAll(students);
+
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (Student student : students) {
+            for (Course course : courses.subList(0, 2)) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(student);
+                enrollment.setCourse(course);
+                enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+                enrollment.setEnrollmentDate(LocalDate.now());
+                enrollments.add(enrollment);
+            }
+        }
+        enrollmentRepository.saveAll(enrollments);
+    }
+
+    @Test
+    void coursesStreamEveryRowInOrder() throws Exception {
+        List<JsonNode> rows = stream("/api/stream/courses?sort=-code");
+        assertEquals(COURSES, rows.size());
+        for (int i = 0; i < COURSES; i++) {
+            assertEquals(String.format("ST%02d", COURSES - 1 - i), rows.get(i).path("code").asText());
+        }
+    }
+
+    @Test
+    void enrollmentsStreamWithStudentAndCourse() throws Exception {
+        List<JsonNode> rows = stream("/api/stream/enrollments?courseId=" + courses.get(0).getId() + "&status=enrolled");
+        assertEquals(STUDENTS, rows.size());
+        for (JsonNode row : rows) {
+            assertEquals("ST00", row.path("course").path("code").asText());
+            assertEquals("Stream", row.path("student").path("firstName").asText());
+            // The list view of the student, not the whole record
+            assertFalse(row.path("student").has("address"));
+            assertFalse(row.path("student").has("dateOfBirth"));
+        }
+    }
+
+    @Test
+    void unfilteredEnrollmentsStreamAcrossPages() throws Exception {
+        // Every page is read and written off the request thread, after its session has closed
+        List<JsonNode> rows = stream("/api/stream/enrollments?sort=-id");
+        assertEquals(STUDENTS * 2, rows.size());
+        for (JsonNode row : rows) {
+            assertEquals("Stream", row.path("student").path("firstName").asText());
+            assertEquals(3, row.path("course").path("credits").asInt());
+        }
+    }
+
+    @Test
+    void invalidSortOrStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/stream/courses?sort=title")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/stream/enrollments?status=lost")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void staffDashboardSubscribersShareEachSummary() {
+        Authentication staff = new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        long before = staffSummaries();
+        List<List<DashboardSummary>> received = Flux.merge(
+                        streamController.streamSummary(staff).take(3).collectList(),
+                        streamController.streamSummary(staff).take(3).collectList())
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        assertEquals(2, received.size());
+        received.forEach(summaries -> assertEquals(3, summaries.size()));
+        // Three ticks (four if the second subscriber joined after the first summary), not six
+        assertTrue(staffSummaries() - before <= 4);
+    }
+
+    private long staffSummaries() {
+        Timer timer = meterRegistry.find("service.method").tag("method", "getStaffSummary").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private List<JsonNode> stream(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}
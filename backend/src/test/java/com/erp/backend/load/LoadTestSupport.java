@@ -0,0 +1,98 @@
+package com.erp.backend.load;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// What the load tests share: the settings every run takes (load.max-error-rate, load.label,
+// load.results-dir), logging in, building seed rows and writing a run's report as JSON.
+final class LoadTestSupport {
+
+    static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    static final String LABEL = System.getProperty("load.label", "");
+    static final Path RESULTS_DIR = Path.of(System.getProperty("load.results-dir", "target/loadtest"));
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestSupport() {
+    }
+
+    // Logs in through the API and returns the access token
+    static String login(HttpClient client, int port, String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        OBJECT_MAPPER.writeValueAsString(Map.of("username", username, "password", password))))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return OBJECT_MAPPER.readTree(response.body()).path("token").asText();
+    }
+
+    // The index-th seeded course, coded prefix + four digits
+    static Course course(String prefix, int index, String title, String department, int capacity, LocalDate createdDate) {
+        Course course = new Course();
+        course.setCode(String.format("%s%04d", prefix, index));
+        course.setTitle(title);
+        course.setDepartment(department);
+        course.setCredits(3);
+        course.setCapacity(capacity);
+        course.setCreatedDate(createdDate);
+        return course;
+    }
+
+    // The index-th seeded student, numbered prefix + six digits, with a unique @load.test address
+    static Student student(String prefix, int index, String firstName, String lastName, String major, int yearLevel,
+                           LocalDate enrollmentDate) {
+        Student student = new Student();
+        student.setStudentId(String.format("%s%06d", prefix, index));
+        student.setFirstName(firstName);
+        student.setLastName(lastName);
+        student.setEmail(prefix.toLowerCase(Locale.ROOT) + index + "@load.test");
+        student.setMajor(major);
+        student.setYearLevel(yearLevel);
+        student.setEnrollmentDate(enrollmentDate);
+        return student;
+    }
+
+    // The fields every report starts with; the test adds its settings and figures
+    static Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", LABEL);
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        return report;
+    }
+
+    // Writes the report to RESULTS_DIR as <name>-<UTC timestamp>[-<label>].json
+    static void writeResults(String name, Map<String, Object> report) throws Exception {
+        Files.createDirectories(RESULTS_DIR);
+        String stamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now());
+        Path file = RESULTS_DIR.resolve(name + "-" + stamp + (LABEL.isBlank() ? "" : "-" + LABEL) + ".json");
+        OBJECT_MAPPER.writeValue(file.toFile(), report);
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+
+    static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,399 @@
+package com.erp.backend.load;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.StudentRepository;
+import com.erp.backend.service.DashboardCounters;
+import com.erp.backend.service.SearchIndexService;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.erp.backend.load.LoadTestSupport.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Registration-day traffic against the whole application on H2: many virtual users hammering
+// enrollment creation, student self-enrollment, the dashboard and search at once. Each user
+// runs a closed loop (next request when the last one returns). Reports throughput, HdrHistogram
+// latency percentiles and error rates per operation, and writes them as JSON under
+// target/loadtest so runs can be compared. Run with: mvn test -Ploadtest
+//
+// To compare threading modes, run it twice on Java 21 with different labels, once as is and once
+// with -Dload.virtual-threads=true -Dload.label=virtual; the report records the mode together
+// with peak thread count, peak heap and GC time over the measured window.
+//
+// Settings (system properties): load.users, load.duration-seconds, load.warmup-seconds,
+// load.students, load.courses, load.capacity, load.think-time-ms, load.max-error-rate,
+// load.label, load.results-dir and load.mix, e.g. -Dload.mix=enroll=30,studentEnroll=30,dashboard=20,search=20
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.threads.virtual.enabled=${load.virtual-threads:false}",
+        "logging.level.com.erp=INFO"
+})
+class RegistrationDayLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 64);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int STUDENTS = Integer.getInteger("load.students", 5000);
+    private static final int COURSES = Integer.getInteger("load.courses", 200);
+    private static final int CAPACITY = Integer.getInteger("load.capacity", 40);
+    private static final long THINK_TIME_MS = Long.getLong("load.think-time-ms", 0);
+    private static final String MIX = System.getProperty("load.mix", "enroll=30,studentEnroll=30,dashboard=20,search=20");
+
+    // Latencies are recorded in microseconds, up to a minute, to three significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Barbara", "Claude", "Edsger", "Frances", "Grace",
+            "John", "Ken", "Linus", "Margaret", "Radia", "Tim", "Yukihiro"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Turing", "Liskov", "Shannon", "Dijkstra", "Allen",
+            "Hopper", "McCarthy", "Thompson", "Torvalds", "Hamilton", "Perlman", "Berners-Lee", "Matsumoto"};
+    private static final String[] DEPARTMENTS = {"Computer Science", "Mathematics", "Physics", "Chemistry",
+            "Biology", "Economics", "History", "Philosophy"};
+    private static final String[] SUBJECTS = {"Algorithms", "Databases", "Calculus", "Mechanics", "Genetics",
+            "Statistics", "Ethics", "Compilers", "Networks", "Topology"};
+
+    private enum Operation { enroll, studentEnroll, dashboard, search }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+    private String adminToken;
+
+    @Test
+    void registrationDay() throws Exception {
+        seed();
+        adminToken = login(client, port, "admin", "admin");
+        Map<Operation, Integer> weights = parseMix(MIX);
+
+        // Warm up the JIT, the connection pool and the caches, then measure from a clean slate
+        run(weights, Duration.ofSeconds(WARMUP_SECONDS));
+        ResourceUsage usage = ResourceUsage.start();
+        long started = System.nanoTime();
+        Map<Operation, Stats> results = run(weights, Duration.ofSeconds(DURATION_SECONDS));
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> report = report(results, elapsedSeconds);
+        report.put("resources", usage.stop());
+        print(results, elapsedSeconds);
+        writeResults("loadtest", report);
+
+        Stats total = total(results);
+        assertTrue(total.requests > 0, "no requests completed");
+        assertTrue(total.errorRate() <= MAX_ERROR_RATE,
+                "error rate " + total.errorRate() + " above " + MAX_ERROR_RATE);
+    }
+
+    // Runs USERS closed-loop virtual users for the given time and returns their merged figures
+    private Map<Operation, Stats> run(Map<Operation, Integer> weights, Duration duration) throws Exception {
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<Map<Operation, Stats>>> futures = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                long seed = u;
+                futures.add(users.submit(() -> {
+                    Random random = new Random(seed);
+                    Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = pick(weights, totalWeight, random);
+                        HttpRequest request = request(operation, random);
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        long micros = (System.nanoTime() - start) / 1000;
+                        stats.computeIfAbsent(operation, key -> new Stats()).record(status, micros);
+                        if (THINK_TIME_MS > 0) {
+                            Thread.sleep(THINK_TIME_MS);
+                        }
+                    }
+                    return stats;
+                }));
+            }
+            Map<Operation, Stats> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, Stats>> future : futures) {
+                future.get().forEach((operation, stats) ->
+                        merged.computeIfAbsent(operation, key -> new Stats()).add(stats));
+            }
+            return merged;
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private HttpRequest request(Operation operation, Random random) {
+        Long studentId = studentIds.get(random.nextInt(studentIds.size()));
+        Long courseId = courseIds.get(random.nextInt(courseIds.size()));
+        return switch (operation) {
+            case enroll -> post("/api/enrollments",
+                    "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + ",\"status\":\"ENROLLED\"}");
+            case studentEnroll -> post("/api/enrollments/student-enroll",
+                    "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}");
+            case dashboard -> get(switch (random.nextInt(3)) {
+                case 0 -> "/api/dashboard/summary";
+                case 1 -> "/api/dashboard/stats";
+                default -> "/api/dashboard/enrollment-stats";
+            });
+            case search -> switch (random.nextInt(3)) {
+                case 0 -> get("/api/students/search?name=" + encode(LAST_NAMES[random.nextInt(LAST_NAMES.length)]));
+                case 1 -> get("/api/courses/search?title=" + encode(SUBJECTS[random.nextInt(SUBJECTS.length)]));
+                default -> get("/api/students/suggest?q="
+                        + encode(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].substring(0, 2)));
+            };
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + adminToken);
+    }
+
+    private void seed() {
+        Random random = new Random(7);
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            courses.add(course("LT", i, SUBJECTS[i % SUBJECTS.length] + " " + (100 + i),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], CAPACITY,
+                    LocalDate.now().minusDays(random.nextInt(60))));
+        }
+        courseIds = courseRepository.saveAll(courses).stream().map(Course::getId).toList();
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(student("LT", i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)], DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    1 + random.nextInt(4), LocalDate.now().minusDays(random.nextInt(365))));
+        }
+        studentIds = studentRepository.saveAll(students).stream().map(Student::getId).toList();
+
+        // Written behind the services' backs, so bring the in-memory views up to date
+        dashboardCounters.rebuild();
+        searchIndexService.rebuild();
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static Operation pick(Map<Operation, Integer> weights, int totalWeight, Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Figures of one operation. Responses are split into ok (2xx), rejected (4xx: duplicate
+    // enrollment, full course) and errors (5xx or no response); only errors count against the run.
+    private static final class Stats {
+        private final Histogram latency = new Histogram(MAX_LATENCY_MICROS, 3);
+        private long requests;
+        private long ok;
+        private long rejected;
+        private long errors;
+
+        void record(int status, long micros) {
+            latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            requests++;
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status >= 400 && status < 500) {
+                rejected++;
+            } else {
+                errors++;
+            }
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            requests += other.requests;
+            ok += other.ok;
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        double errorRate() {
+            return requests > 0 ? (double) errors / requests : 0;
+        }
+
+        Map<String, Object> toMap(double elapsedSeconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requests);
+            map.put("throughputPerSecond", round(requests / elapsedSeconds));
+            map.put("ok", ok);
+            map.put("rejected", rejected);
+            map.put("errors", errors);
+            map.put("errorRate", errorRate());
+            map.put("latencyMs", Map.of(
+                    "p50", millis(latency.getValueAtPercentile(50)),
+                    "p90", millis(latency.getValueAtPercentile(90)),
+                    "p99", millis(latency.getValueAtPercentile(99)),
+                    "p999", millis(latency.getValueAtPercentile(99.9)),
+                    "max", millis(latency.getMaxValue()),
+                    "mean", round(latency.getMean() / 1000.0)));
+            return map;
+        }
+    }
+
+    // Peak threads, peak heap and GC work over the measured window. The load generator runs in the
+    // same JVM, so its threads are included, but they are the same in both threading modes.
+    private static final class ResourceUsage {
+        private long gcCount;
+        private long gcMillis;
+
+        static ResourceUsage start() {
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+            ResourceUsage usage = new ResourceUsage();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                usage.gcCount -= Math.max(gc.getCollectionCount(), 0);
+                usage.gcMillis -= Math.max(gc.getCollectionTime(), 0);
+            }
+            return usage;
+        }
+
+        Map<String, Object> stop() {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(gc.getCollectionCount(), 0);
+                gcMillis += Math.max(gc.getCollectionTime(), 0);
+            }
+            long peakHeap = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("peakThreads", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            map.put("peakHeapMb", round(peakHeap / (1024.0 * 1024.0)));
+            map.put("heapUsedMb", round(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0)));
+            map.put("gcCount", gcCount);
+            map.put("gcMillis", gcMillis);
+            return map;
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+        }
+    }
+
+    private static Stats total(Map<Operation, Stats> results) {
+        Stats total = new Stats();
+        results.values().forEach(total::add);
+        return total;
+    }
+
+    private Map<String, Object> report(Map<Operation, Stats> results, double elapsedSeconds) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", USERS);
+        settings.put("durationSeconds", DURATION_SECONDS);
+        settings.put("warmupSeconds", WARMUP_SECONDS);
+        settings.put("students", STUDENTS);
+        settings.put("courses", COURSES);
+        settings.put("capacity", CAPACITY);
+        settings.put("thinkTimeMs", THINK_TIME_MS);
+        settings.put("mix", MIX);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        results.forEach((operation, stats) -> operations.put(operation.name(), stats.toMap(elapsedSeconds)));
+
+        Map<String, Object> report = LoadTestSupport.report();
+        report.put("threading", Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform");
+        report.put("settings", settings);
+        report.put("total", total(results).toMap(elapsedSeconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static void print(Map<Operation, Stats> results, double elapsedSeconds) {
+        System.out.printf("%n%-14s %9s %9s %8s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "rejected", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        results.forEach((operation, stats) -> printRow(operation.name(), stats, elapsedSeconds));
+        printRow("total", total(results), elapsedSeconds);
+    }
+
+    private static void printRow(String name, Stats stats, double elapsedSeconds) {
+        System.out.printf("%-14s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f%n", name, stats.requests,
+                stats.requests / elapsedSeconds, stats.rejected, stats.errors,
+                millis(stats.latency.getValueAtPercentile(50)), millis(stats.latency.getValueAtPercentile(90)),
+                millis(stats.latency.getValueAtPercentile(99)), millis(stats.latency.getMaxValue()));
+    }
+}
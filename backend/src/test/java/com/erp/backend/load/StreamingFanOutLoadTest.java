@@ -0,0 +1,338 @@
+package com.erp.backend.load;
+
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import com.erp.backend.service.DashboardCounters;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.erp.backend.load.LoadTestSupport.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many concurrent connections against the list and dashboard reads, comparing the servlet
+// endpoints with their /api/stream counterparts: every connection is opened at once, and the
+// report gives time to first row, time to last row, failures and the peak JVM thread count for
+// each scenario. The HTTP client runs on a small fixed pool, so the thread peak is the server's.
+// Results are written as JSON under target/loadtest. Run with:
+// mvn test -Ploadtest -Dtest=StreamingFanOutLoadTest
+//
+// Settings (system properties): load.connections, load.students, load.courses,
+// load.enrollments-per-student, load.hold-seconds (how long dashboard subscribers stay
+// connected), load.max-error-rate, load.label and load.results-dir
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:fanout;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "read-stream.threads=32",
+        "read-stream.dashboard-interval-ms=1000",
+        "server.tomcat.max-connections=20000",
+        "logging.level.com.erp=INFO"
+})
+class StreamingFanOutLoadTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 2000);
+    private static final int STUDENTS = Integer.getInteger("load.students", 2000);
+    private static final int COURSES = Integer.getInteger("load.courses", 100);
+    private static final int ENROLLMENTS_PER_STUDENT = Integer.getInteger("load.enrollments-per-student", 3);
+    private static final int HOLD_SECONDS = Integer.getInteger("load.hold-seconds", 10);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    private String adminToken;
+
+    @Test
+    void fanOut() throws Exception {
+        seed();
+        adminToken = login(client, port, "admin", "admin");
+
+        // One pass over each endpoint to warm up the JIT and the pool before anything is measured
+        for (String path : List.of("/api/enrollments", "/api/stream/enrollments", "/api/courses", "/api/stream/courses")) {
+            client.send(get(path), HttpResponse.BodyHandlers.discarding());
+        }
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        try {
+            results.put("enrollments", open("/api/enrollments", null, null));
+            results.put("streamEnrollments", open("/api/stream/enrollments", null, null));
+            results.put("courses", open("/api/courses", null, null));
+            results.put("streamCourses", open("/api/stream/courses", null, null));
+            results.put("streamDashboard", open("/api/stream/dashboard", "data:", Duration.ofSeconds(HOLD_SECONDS)));
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+
+        print(results);
+        Map<String, Object> report = report();
+        report.put("settings", Map.of("connections", CONNECTIONS, "students", STUDENTS, "courses", COURSES,
+                "enrollmentsPerStudent", ENROLLMENTS_PER_STUDENT, "holdSeconds", HOLD_SECONDS));
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        results.forEach((name, result) -> scenarios.put(name, result.toMap()));
+        report.put("scenarios", scenarios);
+        writeResults("fanout", report);
+
+        // The servlet endpoints are the baseline and may well fail at this fan-out; the streams must not
+        for (String name : List.of("streamEnrollments", "streamCourses", "streamDashboard")) {
+            Result result = results.get(name);
+            assertTrue(result.errorRate() <= MAX_ERROR_RATE,
+                    name + " error rate " + result.errorRate() + " above " + MAX_ERROR_RATE);
+        }
+    }
+
+    // Opens CONNECTIONS requests to path at once. Without hold, waits for every response to end;
+    // with hold, keeps them open that long and then disconnects. Counts lines starting with
+    // countPrefix (every non-empty line when null).
+    private Result open(String path, String countPrefix, Duration hold) throws Exception {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        CountDownLatch finished = new CountDownLatch(CONNECTIONS);
+        List<Connection> connections = new ArrayList<>(CONNECTIONS);
+        long started = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            Connection connection = new Connection(started, countPrefix, finished);
+            connections.add(connection);
+            connection.exchange = client.sendAsync(get(path), info -> {
+                connection.status = info.statusCode();
+                return HttpResponse.BodySubscribers.fromLineSubscriber(connection);
+            });
+            connection.exchange.whenComplete((response, error) -> {
+                if (error != null) {
+                    connection.onError(error);
+                }
+            });
+        }
+        if (hold == null) {
+            // Responses still running at the deadline count as failures and are aborted, so the
+            // server is not still working through them while the next scenario is measured
+            if (!finished.await(10, TimeUnit.MINUTES)) {
+                connections.forEach(Connection::abandon);
+            }
+        } else {
+            Thread.sleep(hold.toMillis());
+            connections.forEach(Connection::cancel);
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        return new Result(connections, elapsedSeconds, hold != null,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    // One open response: when its first and last lines arrived, and how many lines it had
+    private static final class Connection implements Flow.Subscriber<String> {
+        private final long started;
+        private final String countPrefix;
+        private final CountDownLatch finished;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicLong lines = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile CompletableFuture<?> exchange;
+        private volatile int status;
+        private volatile long firstLineNanos;
+        private volatile long lastLineNanos;
+        private volatile boolean failed;
+
+        Connection(long started, String countPrefix, CountDownLatch finished) {
+            this.started = started;
+            this.countPrefix = countPrefix;
+            this.finished = finished;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            long now = System.nanoTime();
+            if (firstLineNanos == 0) {
+                firstLineNanos = now;
+            }
+            lastLineNanos = now;
+            if (countPrefix == null ? !line.isEmpty() : line.startsWith(countPrefix)) {
+                lines.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done.compareAndSet(false, true)) {
+                failed = true;
+                finished.countDown();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (done.compareAndSet(false, true)) {
+                finished.countDown();
+            }
+        }
+
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                finished.countDown();
+            }
+        }
+
+        void abandon() {
+            if (done.compareAndSet(false, true)) {
+                failed = true;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                exchange.cancel(true);
+                finished.countDown();
+            }
+        }
+
+        // A held connection is fine if it got at least one event before it was closed
+        boolean ok(boolean held) {
+            return status == 200 && (held ? lines.get() > 0 : !failed && done.get());
+        }
+    }
+
+    private static final class Result {
+        private final Histogram firstLine = new Histogram(MAX_LATENCY_MICROS, 3);
+        private final Histogram lastLine = new Histogram(MAX_LATENCY_MICROS, 3);
+        private final int connections;
+        private final double elapsedSeconds;
+        private final int peakThreads;
+        private long ok;
+        private long lines;
+
+        Result(List<Connection> all, double elapsedSeconds, boolean held, int peakThreads) {
+            this.connections = all.size();
+            this.elapsedSeconds = elapsedSeconds;
+            this.peakThreads = peakThreads;
+            for (Connection connection : all) {
+                lines += connection.lines.get();
+                if (!connection.ok(held)) {
+                    continue;
+                }
+                ok++;
+                if (connection.firstLineNanos > 0) {
+                    firstLine.recordValue(Math.min((connection.firstLineNanos - connection.started) / 1000, MAX_LATENCY_MICROS));
+                    lastLine.recordValue(Math.min((connection.lastLineNanos - connection.started) / 1000, MAX_LATENCY_MICROS));
+                }
+            }
+        }
+
+        double errorRate() {
+            return connections > 0 ? (double) (connections - ok) / connections : 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("connections", connections);
+            map.put("ok", ok);
+            map.put("errors", connections - ok);
+            map.put("lines", lines);
+            map.put("elapsedSeconds", round(elapsedSeconds));
+            map.put("peakThreads", peakThreads);
+            map.put("firstLineMs", percentiles(firstLine));
+            map.put("lastLineMs", percentiles(lastLine));
+            return map;
+        }
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("p50", millis(histogram.getValueAtPercentile(50)));
+        map.put("p90", millis(histogram.getValueAtPercentile(90)));
+        map.put("p99", millis(histogram.getValueAtPercentile(99)));
+        map.put("max", millis(histogram.getMaxValue()));
+        return map;
+    }
+
+    private static void print(Map<String, Result> results) {
+        System.out.printf("%n%-18s %8s %8s %10s %8s %12s %12s %12s %12s%n", "scenario", "ok", "errors",
+                "lines", "threads", "first p50", "first p99", "last p50", "last p99");
+        results.forEach((name, result) -> System.out.printf("%-18s %8d %8d %10d %8d %12.2f %12.2f %12.2f %12.2f%n",
+                name, result.ok, result.connections - result.ok, result.lines, result.peakThreads,
+                millis(result.firstLine.getValueAtPercentile(50)), millis(result.firstLine.getValueAtPercentile(99)),
+                millis(result.lastLine.getValueAtPercentile(50)), millis(result.lastLine.getValueAtPercentile(99))));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(10))
+                .header("Authorization", "Bearer " + adminToken)
+                .GET()
+                .build();
+    }
+
+    private void seed() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            courses.add(course("FO", i, "Fan-out course " + i, "Department " + (i % 8), STUDENTS, LocalDate.now()));
+        }
+        courses = courseRepository.saveAll(courses);
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(student("FO", i, "First" + i, "Last" + i, "Department " + (i % 8), 1 + i % 4, LocalDate.now()));
+        }
+        students = studentRepository.saveAll(students);
+
+        // Consecutive courses per student, so every (student, course) pair is distinct
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (int s = 0; s < students.size(); s++) {
+            for (int j = 0; j < ENROLLMENTS_PER_STUDENT; j++) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(students.get(s));
+                enrollment.setCourse(courses.get((s * ENROLLMENTS_PER_STUDENT + j) % courses.size()));
+                enrollment.setEnrollmentDate(LocalDate.now().minusDays(j));
+                enrollment.setStatus(Enrollment.EnrollmentStatus.ENROLLED);
+                enrollments.add(enrollment);
+            }
+        }
+        enrollmentRepository.saveAll(enrollments);
+
+        // Written behind the services' backs, so bring the dashboard counters up to date
+        dashboardCounters.rebuild();
+    }
+}
@@ -0,0 +1,174 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.EnrollmentState;
+import com.erp.backend.dto.ReplayReport;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentEventRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every enrollment write lands in the audit log once flushed, with the values before and after,
+// and replaying the log rebuilds exactly what the enrollments table holds, now and as of earlier.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audit;DB_CLOSE_DELAY=-1",
+        // Small batches so a flush spans several of them; no background flushes during a test
+        "audit.batch-size=3",
+        "audit.replay.batch-size=4",
+        "audit.flush-interval-ms=3600000"
+})
+class EnrollmentAuditLogTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    @Autowired
+    private EnrollmentReplay enrollmentReplay;
+
+    @Autowired
+    private EnrollmentEventRepository eventRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private List<Student> students;
+    private Course course;
+
+    @BeforeEach
+    void seed() {
+        auditLog.flush();
+        eventRepository.deleteAllInBatch();
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+
+        course = new Course();
+        course.setCode("AUD1");
+        course.setTitle("Auditing");
+        course.setCredits(3);
+        course.setCapacity(10);
+        course.setCreatedDate(LocalDate.now());
+        course = courseRepository.save(course);
+
+        students = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Student student = new Student();
+            student.setStudentId("AUD" + i);
+            student.setFirstName("Audit");
+            student.setLastName("Trail" + i);
+            student.setEmail("aud" + i + "@audit.test");
+            students.add(student);
+        }
+        students = studentRepository.saveAll(students);
+    }
+
+    @Test
+    void writesAreLoggedWithBeforeAndAfter() {
+        Long id = enrollmentService.createEnrollment(students.get(0).getId(), course.getId(), "ENROLLED").getId();
+        enrollmentService.updateGrade(id, "B", 74.0);
+        enrollmentService.updateGrade(id, "A", 91.0);
+        enrollmentService.updateStatus(id, "DROPPED");
+
+        // Nothing is written on the request path
+        assertEquals(0, eventRepository.count());
+
+        List<EnrollmentEvent> history = enrollmentReplay.history(id);
+        assertEquals(List.of(EnrollmentEvent.Type.CREATED, EnrollmentEvent.Type.GRADE_CHANGED,
+                        EnrollmentEvent.Type.GRADE_CHANGED, EnrollmentEvent.Type.STATUS_CHANGED),
+                history.stream().map(EnrollmentEvent::getType).toList());
+        EnrollmentEvent regrade = history.get(2);
+        assertEquals("B", regrade.getPreviousGrade());
+        assertEquals(74.0, regrade.getPreviousScore());
+        assertEquals("A", regrade.getGrade());
+        assertEquals(91.0, regrade.getScore());
+        assertEquals(EnrollmentAuditLog.SYSTEM_ACTOR, regrade.getActor());
+        assertEquals(Enrollment.EnrollmentStatus.COMPLETED, history.get(3).getPreviousStatus());
+        assertEquals(Enrollment.EnrollmentStatus.DROPPED, history.get(3).getStatus());
+    }
+
+    @Test
+    void rolledBackWritesAreNotLogged() {
+        Long id = enrollmentService.createEnrollment(students.get(0).getId(), course.getId(), "ENROLLED").getId();
+        try {
+            enrollmentService.updateStatus(id, "NOT_A_STATUS");
+        } catch (IllegalArgumentException expected) {
+            // rejected inside the transaction
+        }
+        assertEquals(1, enrollmentReplay.history(id).size());
+    }
+
+    @Test
+    void replayMatchesTheTableNowAndEarlier() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (Student student : students) {
+            ids.add(enrollmentService.createEnrollment(student.getId(), course.getId(), "ENROLLED").getId());
+        }
+        enrollmentService.updateGrade(ids.get(0), "C", 65.0);
+        auditLog.flush();
+        Thread.sleep(5);
+        Instant beforeChanges = Instant.now();
+        Thread.sleep(5);
+        enrollmentService.updateGrade(ids.get(0), "B", 78.0);
+        enrollmentService.updateStatus(ids.get(1), "DROPPED");
+        enrollmentService.deleteEnrollment(ids.get(2));
+
+        ReplayReport report = enrollmentReplay.verify();
+        assertEquals(3, report.enrollments());
+        assertEquals(3, report.matched());
+        assertEquals(0, report.mismatched());
+        assertEquals(0, report.untracked());
+        assertEquals(0, report.orphaned());
+
+        Map<Long, EnrollmentState> earlier = enrollmentReplay.stateAt(beforeChanges);
+        assertEquals(4, earlier.size());
+        assertEquals("C", earlier.get(ids.get(0)).grade());
+        assertEquals(Enrollment.EnrollmentStatus.ENROLLED, earlier.get(ids.get(1)).status());
+        assertTrue(earlier.containsKey(ids.get(2)));
+    }
+
+    @Test
+    void baselineCoversEnrollmentsThatPredateTheLog() {
+        Enrollment legacy = new Enrollment();
+        legacy.setStudent(students.get(3));
+        legacy.setCourse(course);
+        legacy.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+        legacy.setGrade("A");
+        legacy.setScore(88.0);
+        legacy.setEnrollmentDate(LocalDate.now().minusYears(1));
+        enrollmentRepository.save(legacy);
+        enrollmentService.createEnrollment(students.get(0).getId(), course.getId(), "ENROLLED");
+
+        assertEquals(1, enrollmentReplay.verify().untracked());
+        assertEquals(1, enrollmentReplay.baseline());
+        ReplayReport report = enrollmentReplay.verify();
+        assertEquals(2, report.matched());
+        assertEquals(0, report.untracked());
+        assertFalse(enrollmentReplay.history(legacy.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,205 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.HistoryStats;
+import com.erp.backend.dto.TermSummary;
+import com.erp.backend.dto.TranscriptEntry;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.EnrollmentEvent;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentEventRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Flushed enrollment changes show up in the history store in their latest state, deletions
+// remove the enrollment, neither compaction nor reopening the files changes what it answers, and
+// events the store missed are read back from the audit log.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;DB_CLOSE_DELAY=-1",
+        // Tiny segments so a few changes fill several; compaction and flushes only when called
+        "history.segment-records=4",
+        "history.compaction.min-segments=2",
+        "history.compaction.interval-ms=3600000",
+        "audit.flush-interval-ms=3600000"
+})
+class EnrollmentHistoryStoreTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentAuditLog auditLog;
+
+    @Autowired
+    private EnrollmentHistoryStore historyStore;
+
+    @Autowired
+    private EnrollmentReplay enrollmentReplay;
+
+    @Autowired
+    private EnrollmentEventRepository eventRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private Student student;
+    private List<Course> courses;
+
+    // Fresh rows per test; the store keeps what earlier tests wrote, under other ids
+    @BeforeEach
+    void seed() {
+        auditLog.flush();
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+
+        courses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Course course = new Course();
+            course.setCode("HIS" + i);
+            course.setTitle("History " + i);
+            course.setCredits(3);
+            course.setCapacity(10);
+            course.setCreatedDate(LocalDate.now());
+            courses.add(course);
+        }
+        courses = courseRepository.saveAll(courses);
+
+        student = new Student();
+        student.setStudentId("HIS");
+        student.setFirstName("History");
+        student.setLastName("Reader");
+        student.setEmail("his@history.test");
+        student = studentRepository.save(student);
+    }
+
+    @Test
+    void transcriptShowsTheLatestStateOfEachEnrollment() {
+        Long graded = enrollmentService.createEnrollment(student.getId(), courses.get(0).getId(), "ENROLLED").getId();
+        enrollmentService.updateGrade(graded, "B", 74.0);
+        enrollmentService.updateGrade(graded, "A-", 90.5);
+        Long dropped = enrollmentService.createEnrollment(student.getId(), courses.get(1).getId(), "ENROLLED").getId();
+        enrollmentService.updateStatus(dropped, "DROPPED");
+        auditLog.flush();
+
+        List<TranscriptEntry> transcript = historyStore.transcript(student.getId());
+        assertEquals(2, transcript.size());
+        TranscriptEntry first = entry(transcript, graded);
+        assertEquals("A-", first.grade());
+        assertEquals(90.5, first.score());
+        assertEquals(courses.get(0).getId(), first.courseId());
+        TranscriptEntry second = entry(transcript, dropped);
+        assertEquals(Enrollment.EnrollmentStatus.DROPPED, second.status());
+        assertNull(second.score());
+    }
+
+    @Test
+    void deletedEnrollmentsLeaveTheTranscript() {
+        Long kept = enrollmentService.createEnrollment(student.getId(), courses.get(0).getId(), "ENROLLED").getId();
+        Long removed = enrollmentService.createEnrollment(student.getId(), courses.get(1).getId(), "ENROLLED").getId();
+        enrollmentService.deleteEnrollment(removed);
+        auditLog.flush();
+
+        List<TranscriptEntry> transcript = historyStore.transcript(student.getId());
+        assertEquals(List.of(kept), transcript.stream().map(TranscriptEntry::enrollmentId).toList());
+    }
+
+    @Test
+    void courseTermsCountTheLatestStates() {
+        Course course = courses.get(2);
+        Long first = enrollmentService.createEnrollment(student.getId(), course.getId(), "ENROLLED").getId();
+        enrollmentService.updateGrade(first, "B+", 80.0);
+        auditLog.flush();
+
+        List<TermSummary> terms = historyStore.courseTerms(course.getId());
+        assertEquals(1, terms.size());
+        TermSummary term = terms.get(0);
+        assertEquals(LocalDate.now().getYear(), term.year());
+        assertEquals(1, term.enrollments());
+        assertEquals(1, term.completed());
+        assertEquals(80.0, term.averageScore());
+    }
+
+    @Test
+    void compactionAndReopenKeepTheAnswers() throws Exception {
+        Long id = enrollmentService.createEnrollment(student.getId(), courses.get(0).getId(), "ENROLLED").getId();
+        for (int i = 0; i < 10; i++) {
+            enrollmentService.updateGrade(id, "C", 60.0 + i);
+        }
+        Long removed = enrollmentService.createEnrollment(student.getId(), courses.get(1).getId(), "ENROLLED").getId();
+        enrollmentService.deleteEnrollment(removed);
+        auditLog.flush();
+        List<TranscriptEntry> before = historyStore.transcript(student.getId());
+        HistoryStats grown = historyStore.stats();
+        assertTrue(grown.segments() > 2);
+
+        historyStore.compact();
+        HistoryStats compacted = historyStore.stats();
+        assertEquals(grown.compactions() + 1, compacted.compactions());
+        assertTrue(compacted.records() < grown.records());
+        assertEquals(grown.nextVersion(), compacted.nextVersion());
+        assertEquals(before, historyStore.transcript(student.getId()));
+
+        historyStore.close();
+        historyStore.open();
+        assertEquals(compacted.records(), historyStore.stats().records());
+        assertEquals(compacted.nextVersion(), historyStore.stats().nextVersion());
+        assertEquals(before, historyStore.transcript(student.getId()));
+        assertEquals(69.0, entry(before, id).score());
+    }
+
+    @Test
+    void missedEventsAreReadFromTheAuditLog() throws Exception {
+        // An enrollment from before the audit log reaches the store through the baseline
+        Enrollment legacy = new Enrollment();
+        legacy.setStudent(student);
+        legacy.setCourse(courses.get(0));
+        legacy.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+        legacy.setGrade("A");
+        legacy.setScore(91.0);
+        legacy.setEnrollmentDate(LocalDate.now().minusYears(1));
+        legacy = enrollmentRepository.save(legacy);
+        assertEquals(1, enrollmentReplay.baseline());
+        auditLog.flush();
+        assertEquals("A", entry(historyStore.transcript(student.getId()), legacy.getId()).grade());
+
+        // An event committed to the table but never appended, as after a crash, is appended on open
+        legacy.setGrade("B");
+        legacy.setScore(82.0);
+        eventRepository.save(new EnrollmentEvent(EnrollmentEvent.Type.GRADE_CHANGED, legacy,
+                Enrollment.EnrollmentStatus.COMPLETED, "A", 91.0, EnrollmentAuditLog.SYSTEM_ACTOR, Instant.now()));
+        historyStore.close();
+        historyStore.open();
+        assertEquals("B", entry(historyStore.transcript(student.getId()), legacy.getId()).grade());
+        long records = historyStore.stats().records();
+
+        // Reopening again appends nothing twice
+        historyStore.close();
+        historyStore.open();
+        assertEquals(records, historyStore.stats().records());
+    }
+
+    private static TranscriptEntry entry(List<TranscriptEntry> transcript, Long enrollmentId) {
+        return transcript.stream().filter(e -> e.enrollmentId().equals(enrollmentId)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.erp.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many producers and one consumer on a small ring: every element arrives exactly once and each
+// producer's elements arrive in the order it offered them, however often the ring wraps or fills.
+class MpscRingBufferTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int PER_PRODUCER = 50_000;
+
+    @Test
+    void fullRingRejectsUntilDrained() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        List<Integer> taken = new ArrayList<>();
+        assertEquals(2, ring.drain(taken::add, 2));
+        assertTrue(ring.offer(4));
+        assertTrue(ring.offer(5));
+        assertEquals(4, ring.drain(taken::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), taken);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void concurrentProducersLoseAndReorderNothing() throws Exception {
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < PRODUCERS; p++) {
+            long producer = p;
+            producers.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < PER_PRODUCER; i++) {
+                    long[] element = {producer, i};
+                    while (!ring.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long[] next = new long[PRODUCERS];
+        long received = 0;
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < (long) PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+            received += ring.drain(element -> {
+                int producer = (int) element[0];
+                assertEquals(next[producer], element[1], "out of order for producer " + producer);
+                next[producer]++;
+            }, 256);
+        }
+        producers.shutdownNow();
+
+        assertEquals((long) PRODUCERS * PER_PRODUCER, received);
+        for (long count : next) {
+            assertEquals(PER_PRODUCER, count);
+        }
+    }
+}
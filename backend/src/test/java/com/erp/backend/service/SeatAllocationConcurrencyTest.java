@@ -0,0 +1,273 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.WaitlistStats;
+import com.erp.backend.entity.Course;
+import com.erp.backend.entity.Enrollment;
+import com.erp.backend.entity.Student;
+import com.erp.backend.repository.CourseRepository;
+import com.erp.backend.repository.EnrollmentRepository;
+import com.erp.backend.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Registration-day stress: many threads enrolling into one small course at the same instant,
+// each student trying more than once. No course may end up with more seat holders than its
+// capacity, and no student may be enrolled twice. Completing a course frees its seat. Course edits that leave capacity out keep it,
+// and the cached catalog follows seat changes.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seats;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+class SeatAllocationConcurrencyTest {
+
+    private static final int CAPACITY = 20;
+    private static final int STUDENTS = 120;
+    private static final int ATTEMPTS_PER_STUDENT = 2;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private WaitlistPromoter waitlistPromoter;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private BulkUpsertService bulkUpsertService;
+
+    @Test
+    void concurrentEnrollmentNeverOverbooksOrDuplicates() throws Exception {
+        Course course = createCourse("STRESS1");
+        List<Student> students = createStudents("A");
+
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(students.size() * ATTEMPTS_PER_STUDENT, i -> {
+            Student student = students.get(i % students.size());
+            try {
+                enrollmentService.createEnrollment(student.getId(), course.getId(), "ENROLLED");
+            } catch (RuntimeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
+        assertEquals(STUDENTS, enrollments.size());
+        assertEquals(STUDENTS, enrollments.stream().map(e -> e.getStudent().getId()).distinct().count());
+        assertEquals(STUDENTS * (ATTEMPTS_PER_STUDENT - 1), rejected.get());
+        assertEquals(CAPACITY, countSeatHolders(enrollments));
+        assertEquals(STUDENTS - CAPACITY, enrollments.stream()
+                .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.WAITLISTED).count());
+        assertEquals(CAPACITY, courseRepository.findById(course.getId()).orElseThrow().getSeatsTaken());
+    }
+
+    @Test
+    void concurrentDropsAndSeatRequestsKeepSeatCountExact() throws Exception {
+        Course course = createCourse("STRESS2");
+        List<Student> students = createStudents("B");
+        List<Long> enrollmentIds = new ArrayList<>();
+        for (Student student : students) {
+            enrollmentIds.add(enrollmentService.createEnrollment(student.getId(), course.getId(), "ENROLLED").getId());
+        }
+
+        // Half the seat holders drop while every waitlisted student asks for a seat
+        runConcurrently(enrollmentIds.size(), i -> {
+            try {
+                if (i < CAPACITY) {
+                    if (i % 2 == 0) {
+                        enrollmentService.updateStatus(enrollmentIds.get(i), "DROPPED");
+                    }
+                } else {
+                    enrollmentService.updateStatus(enrollmentIds.get(i), "ENROLLED");
+                }
+            } catch (RuntimeException e) {
+                // "Course is full" for the requests that lost the race
+            }
+        });
+        // Seats freed after the last request are filled by the promoter
+        awaitPromotions();
+
+        List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
+        long holders = countSeatHolders(enrollments);
+        assertEquals(CAPACITY, holders);
+        assertEquals(holders, (long) courseRepository.findById(course.getId()).orElseThrow().getSeatsTaken());
+    }
+
+    @Test
+    void droppedSeatGoesToOldestWaitlistedStudent() throws Exception {
+        Course course = createCourse("STRESS3");
+        List<Student> students = createStudents("C");
+        List<Long> enrollmentIds = new ArrayList<>();
+        for (int i = 0; i < CAPACITY + 3; i++) {
+            enrollmentIds.add(enrollmentService.createEnrollment(students.get(i).getId(), course.getId(), "ENROLLED").getId());
+        }
+
+        enrollmentService.updateStatus(enrollmentIds.get(0), "DROPPED");
+        awaitPromotions();
+
+        assertEquals(Enrollment.EnrollmentStatus.ENROLLED,
+                enrollmentService.getEnrollmentById(enrollmentIds.get(CAPACITY)).getStatus());
+        assertEquals(List.of(enrollmentIds.get(CAPACITY + 1), enrollmentIds.get(CAPACITY + 2)),
+                enrollmentService.getWaitlist(course.getId()).stream().map(Enrollment::getId).toList());
+        assertEquals(CAPACITY, courseRepository.findById(course.getId()).orElseThrow().getSeatsTaken());
+    }
+
+    @Test
+    void completingACourseFreesTheSeat() throws Exception {
+        Course course = createCourse("STRESS6");
+        List<Student> students = createStudents("F");
+        List<Long> enrollmentIds = new ArrayList<>();
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            enrollmentIds.add(enrollmentService.createEnrollment(students.get(i).getId(), course.getId(), "ENROLLED").getId());
+        }
+
+        // A grade completes the enrollment; so does setting the status
+        enrollmentService.updateGrade(enrollmentIds.get(0), "A", 95.0);
+        enrollmentService.updateStatus(enrollmentIds.get(1), "COMPLETED");
+        awaitPromotions();
+
+        assertEquals(Enrollment.EnrollmentStatus.COMPLETED, enrollmentService.getEnrollmentById(enrollmentIds.get(0)).getStatus());
+        assertEquals(Enrollment.EnrollmentStatus.ENROLLED, enrollmentService.getEnrollmentById(enrollmentIds.get(CAPACITY)).getStatus());
+        assertEquals(Enrollment.EnrollmentStatus.ENROLLED, enrollmentService.getEnrollmentById(enrollmentIds.get(CAPACITY + 1)).getStatus());
+        assertEquals(CAPACITY, countSeatHolders(enrollmentRepository.findByCourse(course)));
+        assertEquals(CAPACITY, courseRepository.findById(course.getId()).orElseThrow().getSeatsTaken());
+
+        // Reopening a completed enrollment needs a seat again
+        assertThrows(RuntimeException.class, () -> enrollmentService.updateStatus(enrollmentIds.get(0), "ENROLLED"));
+    }
+
+    @Test
+    void editsWithoutCapacityKeepTheLimit() {
+        Course course = createCourse("STRESS4");
+
+        // The course form sends no capacity
+        Course edit = new Course();
+        edit.setCode(course.getCode());
+        edit.setTitle("Renamed");
+        assertEquals(CAPACITY, courseService.updateCourse(course.getId(), edit).getCapacity());
+
+        Course row = new Course();
+        row.setCode(course.getCode());
+        row.setTitle("Upserted");
+        bulkUpsertService.upsertCourses(List.of(row));
+        assertEquals(CAPACITY, courseRepository.findById(course.getId()).orElseThrow().getCapacity());
+
+        Course unlimited = new Course();
+        unlimited.setCode(course.getCode());
+        unlimited.setTitle("Unlimited");
+        unlimited.setUnlimitedCapacity(true);
+        assertNull(courseService.updateCourse(course.getId(), unlimited).getCapacity());
+    }
+
+    @Test
+    void cachedCatalogShowsCurrentSeats() {
+        Course course = createCourse("STRESS5");
+        List<Student> students = createStudents("E");
+        // Warm the catalog caches
+        assertEquals(0, courseService.getCourseById(course.getId()).orElseThrow().getSeatsTaken());
+        assertEquals(0, courseService.getCourseByCode("STRESS5").orElseThrow().getSeatsTaken());
+        assertEquals(0, seatsInDepartmentList(course));
+
+        Long enrollmentId = enrollmentService.createEnrollment(students.get(0).getId(), course.getId(), "ENROLLED").getId();
+        enrollmentService.createEnrollment(students.get(1).getId(), course.getId(), "ENROLLED");
+        assertEquals(2, courseService.getCourseById(course.getId()).orElseThrow().getSeatsTaken());
+        assertEquals(2, courseService.getCourseByCode("STRESS5").orElseThrow().getSeatsTaken());
+        assertEquals(2, seatsInDepartmentList(course));
+
+        enrollmentService.deleteEnrollment(enrollmentId);
+        assertEquals(1, courseService.getCourseById(course.getId()).orElseThrow().getSeatsTaken());
+        assertEquals(1, seatsInDepartmentList(course));
+    }
+
+    private int seatsInDepartmentList(Course course) {
+        return courseService.getCoursesByDepartment(course.getDepartment()).stream()
+                .filter(c -> c.getId().equals(course.getId()))
+                .findFirst().orElseThrow().getSeatsTaken();
+    }
+
+    private void awaitPromotions() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            WaitlistStats stats = waitlistPromoter.stats();
+            if (stats.inFlight() == 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Waitlist promotions did not finish");
+    }
+
+    private Course createCourse(String code) {
+        Course course = new Course();
+        course.setCode(code);
+        course.setTitle("Stress " + code);
+        course.setDepartment("Testing");
+        course.setCapacity(CAPACITY);
+        course.setCreatedDate(LocalDate.now());
+        return courseRepository.save(course);
+    }
+
+    private List<Student> createStudents(String prefix) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setStudentId(prefix + i);
+            student.setFirstName("Student");
+            student.setLastName(prefix + i);
+            student.setEmail(prefix.toLowerCase() + i + "@stress.test");
+            students.add(student);
+        }
+        return studentRepository.saveAll(students);
+    }
+
+    private static long countSeatHolders(List<Enrollment> enrollments) {
+        return enrollments.stream().filter(e -> e.getStatus().holdsSeat()).count();
+    }
+
+    // Run `tasks` calls of `task` from a thread pool, all released at the same moment
+    private static void runConcurrently(int tasks, IntTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface IntTask {
+        void run(int index);
+    }
+}
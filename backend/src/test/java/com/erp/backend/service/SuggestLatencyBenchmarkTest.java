@@ -0,0 +1,115 @@
+package com.erp.backend.service;
+
+import com.erp.backend.dto.Suggestion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Typeahead latency at registration-office scale: 200k students typed one keystroke at a time
+// while another thread keeps editing students. Run with: mvn test -Pbenchmark
+// The target can be overridden with -Dsuggest.p99-target-micros=...
+@Tag("benchmark")
+class SuggestLatencyBenchmarkTest {
+
+    private static final int STUDENTS = 200_000;
+    private static final int WARMUP_QUERIES = 50_000;
+    private static final int MEASURED_QUERIES = 200_000;
+    private static final int LIMIT = 10;
+    private static final long P99_TARGET_MICROS = Long.getLong("suggest.p99-target-micros", 1000);
+
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Amelie", "Andrew", "Barbara", "Bjarne", "Claude",
+            "Dennis", "Donald", "Edsger", "Frances", "Grace", "Guido", "Hedy", "John", "Ken", "Linus", "Margaret",
+            "Niklaus", "Radia", "Shafi", "Sophie", "Tim", "Yukihiro"};
+    private static final String[] LAST_NAMES = {"Lovelace", "Turing", "Díaz", "Hopper", "Liskov", "Stroustrup",
+            "Shannon", "Ritchie", "Knuth", "Dijkstra", "Allen", "Lamarr", "McCarthy", "Thompson", "Torvalds",
+            "Hamilton", "Wirth", "Perlman", "Goldwasser", "Wilson", "Berners-Lee", "Matsumoto", "van Rossum"};
+
+    @Test
+    void suggestP99StaysUnderTargetWhileWriting() throws Exception {
+        Random random = new Random(42);
+        PrefixSuggester suggester = new PrefixSuggester();
+        suggester.beginRebuild();
+        for (long id = 1; id <= STUDENTS; id++) {
+            load(suggester, id, random);
+        }
+        suggester.finishRebuild();
+
+        List<String> queries = new ArrayList<>();
+        while (queries.size() < WARMUP_QUERIES + MEASURED_QUERIES) {
+            // Every keystroke of a name, a student ID or a "first last" pair
+            String typed = switch (random.nextInt(3)) {
+                case 0 -> LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                case 1 -> studentId(1 + random.nextInt(STUDENTS));
+                default -> FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            };
+            for (int length = 1; length <= typed.length(); length++) {
+                queries.add(typed.substring(0, length));
+            }
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            Random writes = new Random(7);
+            while (writing.get()) {
+                long id = 1 + writes.nextInt(STUDENTS);
+                if (writes.nextInt(10) == 0) {
+                    suggester.remove(id);
+                }
+                load(suggester, id, writes);
+            }
+        });
+        writer.start();
+
+        long[] nanos = new long[MEASURED_QUERIES];
+        try {
+            for (int i = 0; i < WARMUP_QUERIES; i++) {
+                suggester.suggest(queries.get(i), LIMIT);
+            }
+            for (int i = 0; i < MEASURED_QUERIES; i++) {
+                String query = queries.get(WARMUP_QUERIES + i);
+                long start = System.nanoTime();
+                List<Suggestion> suggestions = suggester.suggest(query, LIMIT);
+                nanos[i] = System.nanoTime() - start;
+                assertTrue(suggestions.size() <= LIMIT);
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+
+        Arrays.sort(nanos);
+        long p50 = nanos[MEASURED_QUERIES / 2] / 1000;
+        long p99 = nanos[MEASURED_QUERIES * 99 / 100] / 1000;
+        long max = nanos[MEASURED_QUERIES - 1] / 1000;
+        System.out.printf("suggest over %d students: p50=%dus p99=%dus max=%dus%n", STUDENTS, p50, p99, max);
+
+        // Still answering correctly after all the concurrent writes
+        List<Suggestion> exact = suggester.suggest(studentId(STUDENTS / 2), LIMIT);
+        assertEquals(List.of((long) STUDENTS / 2), exact.stream().map(Suggestion::id).toList());
+
+        assertTrue(p99 <= P99_TARGET_MICROS, "p99 " + p99 + "us exceeds target " + P99_TARGET_MICROS + "us");
+    }
+
+    private static void load(PrefixSuggester suggester, long id, Random random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String studentId = studentId(id);
+        String label = first + " " + last + " (" + studentId + ")";
+        List<String> keys = List.of(first + " " + last, studentId, first.toLowerCase() + "." + id + "@university.edu");
+        if (suggester.isReady()) {
+            suggester.put(id, label, keys);
+        } else {
+            suggester.load(id, label, keys);
+        }
+    }
+
+    private static String studentId(long id) {
+        return String.format("S%07d", id);
+    }
+}
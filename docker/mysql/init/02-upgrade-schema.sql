@@ -0,0 +1,154 @@
+-- Brings a database created by an earlier version of the backend up to the current schema.
+-- The prod profile runs with ddl-auto: validate, so run this before deploying a new version:
+--   mysql -h <host> -u <user> -p <database> < docker/mysql/init/02-upgrade-schema.sql
+-- Every step checks the current schema first, so the script can be run any number of times.
+-- On a fresh Docker volume it runs before the backend has created any tables: the tables that
+-- are new in this version are created, the steps for the older ones are skipped, and the
+-- backend creates those as they should be.
+
+DROP PROCEDURE IF EXISTS ucms_add_column;
+DROP PROCEDURE IF EXISTS ucms_add_index;
+DROP PROCEDURE IF EXISTS ucms_align_sequence;
+DROP PROCEDURE IF EXISTS ucms_upgrade;
+
+DELIMITER //
+
+-- Adds column_name to an existing table_name, defined as column_definition, unless it is there already
+CREATE PROCEDURE ucms_add_column(IN table_name_in VARCHAR(64), IN column_name_in VARCHAR(64), IN column_definition TEXT)
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = DATABASE() AND table_name = table_name_in)
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = table_name_in AND column_name = column_name_in) THEN
+        SET @ucms_statement = CONCAT('ALTER TABLE ', table_name_in, ' ADD COLUMN ', column_name_in, ' ', column_definition);
+        PREPARE ucms_prepared FROM @ucms_statement;
+        EXECUTE ucms_prepared;
+        DEALLOCATE PREPARE ucms_prepared;
+    END IF;
+END //
+
+-- Creates index_name on an existing table_name over column_list, unless it is there already
+CREATE PROCEDURE ucms_add_index(IN table_name_in VARCHAR(64), IN index_name_in VARCHAR(64), IN column_list TEXT)
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = DATABASE() AND table_name = table_name_in)
+       AND NOT EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = table_name_in AND index_name = index_name_in) THEN
+        SET @ucms_statement = CONCAT('CREATE INDEX ', index_name_in, ' ON ', table_name_in, ' (', column_list, ')');
+        PREPARE ucms_prepared FROM @ucms_statement;
+        EXECUTE ucms_prepared;
+        DEALLOCATE PREPARE ucms_prepared;
+    END IF;
+END //
+
+-- Gives the table-backed id sequence sequence_name its single row, and moves it past the
+-- highest id in table_name. Hibernate's pooled optimizer hands out (next_val - allocation_size,
+-- next_val], so next_val must be at least max(id) + allocation_size. Only ever moves forward.
+CREATE PROCEDURE ucms_align_sequence(IN sequence_name VARCHAR(64), IN table_name_in VARCHAR(64), IN allocation_size INT)
+BEGIN
+    SET @ucms_statement = CONCAT('INSERT INTO ', sequence_name,
+        ' SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM ', sequence_name, ')');
+    PREPARE ucms_prepared FROM @ucms_statement;
+    EXECUTE ucms_prepared;
+    DEALLOCATE PREPARE ucms_prepared;
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = DATABASE() AND table_name = table_name_in) THEN
+        SET @ucms_statement = CONCAT('UPDATE ', sequence_name, ' SET next_val = (SELECT MAX(id) + ', allocation_size,
+            ' FROM ', table_name_in, ') WHERE next_val < (SELECT MAX(id) + ', allocation_size, ' FROM ', table_name_in, ')');
+        PREPARE ucms_prepared FROM @ucms_statement;
+        EXECUTE ucms_prepared;
+        DEALLOCATE PREPARE ucms_prepared;
+    END IF;
+END //
+
+CREATE PROCEDURE ucms_upgrade()
+BEGIN
+    -- Course capacity. seats_taken is recounted from the enrollments when the backend starts.
+    CALL ucms_add_column('courses', 'capacity', 'INT NULL');
+    CALL ucms_add_column('courses', 'seats_taken', 'INT NOT NULL DEFAULT 0');
+
+    -- Status was a native ENUM without WAITLISTED; as VARCHAR new statuses need no ALTER
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'enrollments' AND column_name = 'status'
+               AND data_type <> 'varchar') THEN
+        ALTER TABLE enrollments MODIFY COLUMN status VARCHAR(20) NULL;
+    END IF;
+    CALL ucms_add_column('enrollments', 'waitlisted_at', 'DATETIME(6) NULL');
+
+    -- One enrollment per student and course. Of duplicate pairs, keep the newest row that
+    -- holds a seat (or the newest one, if none does) before adding the unique key.
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = DATABASE() AND table_name = 'enrollments')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'enrollments'
+               AND index_name = 'uk_enrollments_student_course') THEN
+        DELETE e FROM enrollments e
+            JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY student_id, course_id
+                          ORDER BY status NOT IN ('ENROLLED', 'PENDING'), id DESC) AS keep_rank
+                  FROM enrollments) ranked ON ranked.id = e.id
+            WHERE ranked.keep_rank > 1;
+        ALTER TABLE enrollments ADD CONSTRAINT uk_enrollments_student_course UNIQUE (student_id, course_id);
+    END IF;
+
+    -- Indexes for the list, search and waitlist queries
+    CALL ucms_add_index('students', 'idx_students_major', 'major');
+    CALL ucms_add_index('students', 'idx_students_year_level', 'year_level');
+    CALL ucms_add_index('courses', 'idx_courses_department', 'department');
+    CALL ucms_add_index('courses', 'idx_courses_created_date', 'created_date');
+    CALL ucms_add_index('enrollments', 'idx_enrollments_enrollment_date', 'enrollment_date');
+    CALL ucms_add_index('enrollments', 'idx_enrollments_status', 'status');
+    CALL ucms_add_index('enrollments', 'idx_enrollments_course_status', 'course_id, status, waitlisted_at');
+
+    -- Student, course and enrollment ids come from pooled sequences (allocation size 50)
+    -- instead of AUTO_INCREMENT; the backend also aligns them at startup
+    CALL ucms_align_sequence('students_seq', 'students', 50);
+    CALL ucms_align_sequence('courses_seq', 'courses', 50);
+    CALL ucms_align_sequence('enrollments_seq', 'enrollments', 50);
+    CALL ucms_align_sequence('enrollment_events_seq', 'enrollment_events', 50);
+END //
+
+DELIMITER ;
+
+CREATE TABLE IF NOT EXISTS students_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS courses_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS enrollments_seq (next_val BIGINT) ENGINE=InnoDB;
+
+-- Revoked access and refresh tokens, kept until they would have expired anyway
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    token_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (token_id),
+    INDEX idx_revoked_tokens_expires_at (expires_at),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at)
+) ENGINE=InnoDB;
+
+-- The enrollment audit log
+CREATE TABLE IF NOT EXISTS enrollment_events (
+    completion_date DATE,
+    enrollment_date DATE,
+    previous_score FLOAT(53),
+    score FLOAT(53),
+    course_id BIGINT,
+    enrollment_id BIGINT NOT NULL,
+    id BIGINT NOT NULL,
+    occurred_at DATETIME(6) NOT NULL,
+    student_id BIGINT,
+    actor VARCHAR(100) NOT NULL,
+    grade VARCHAR(255),
+    previous_grade VARCHAR(255),
+    previous_status VARCHAR(20),
+    status VARCHAR(20),
+    type VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_enrollment_events_enrollment (enrollment_id),
+    INDEX idx_enrollment_events_occurred_at (occurred_at)
+) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS enrollment_events_seq (next_val BIGINT) ENGINE=InnoDB;
+
+CALL ucms_upgrade();
+
+DROP PROCEDURE ucms_upgrade;
+DROP PROCEDURE ucms_align_sequence;
+DROP PROCEDURE ucms_add_index;
+DROP PROCEDURE ucms_add_column;
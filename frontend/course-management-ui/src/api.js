@@ -25,3 +25,94 @@ const getApiBase = () => {
 const API_BASE = getApiBase();
 
 export default API_BASE;
+
+// Session tokens live in the 'user' entry that Login.js writes: token (short-lived access
+// token), refreshToken (single use) and expiresAt (epoch ms of the access token's expiry).
+const REFRESH_MARGIN_MS = 30 * 1000;
+
+const readSession = () => {
+  try {
+    return JSON.parse(localStorage.getItem('user')) || null;
+  } catch (e) {
+    return null;
+  }
+};
+
+export const saveSession = (user, data) => {
+  const session = {
+    ...user,
+    token: data.token,
+    refreshToken: data.refreshToken,
+    expiresAt: Date.now() + data.expiresIn * 1000
+  };
+  localStorage.setItem('user', JSON.stringify(session));
+  return session;
+};
+
+let refreshing = null;
+
+// Trades the refresh token for a new pair. A refresh token works once, so concurrent callers
+// share the one request. Resolves to the new access token, or null when the session is over.
+export const refreshSession = () => {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const user = readSession();
+      if (!user || !user.refreshToken) return null;
+      const res = await fetch(`${API_BASE}/api/auth/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken: user.refreshToken })
+      });
+      if (!res.ok) {
+        // Expired or already used: the user has to log in again
+        localStorage.removeItem('user');
+        return null;
+      }
+      return saveSession(user, await res.json()).token;
+    })().finally(() => { refreshing = null; });
+  }
+  return refreshing;
+};
+
+// The current access token, refreshed first when it is about to expire
+const accessToken = async () => {
+  const user = readSession();
+  if (!user || !user.token) return null;
+  if (user.expiresAt && user.expiresAt - Date.now() < REFRESH_MARGIN_MS) {
+    return refreshSession().catch(() => user.token);
+  }
+  return user.token;
+};
+
+const withToken = (options, token) => {
+  const headers = { ...(options.headers || {}) };
+  delete headers.Authorization;
+  if (token) headers.Authorization = `Bearer ${token}`;
+  return { ...options, headers };
+};
+
+// fetch() with the session's bearer token. A 401 (token expired or revoked) refreshes the
+// session once and retries; without a session the request goes out anonymously.
+export const authFetch = async (url, options = {}) => {
+  const token = await accessToken();
+  const res = await fetch(url, withToken(options, token));
+  if (res.status !== 401 || !token) return res;
+  const refreshed = await refreshSession().catch(() => null);
+  return fetch(url, withToken(options, refreshed));
+};
+
+// Revokes the session's tokens on the server and forgets them here
+export const endSession = async () => {
+  const user = readSession();
+  localStorage.removeItem('user');
+  if (!user || !user.token) return;
+  try {
+    await fetch(`${API_BASE}/api/auth/logout`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${user.token}` },
+      body: JSON.stringify({ refreshToken: user.refreshToken })
+    });
+  } catch (e) {
+    // Offline: the tokens simply run out
+  }
+};
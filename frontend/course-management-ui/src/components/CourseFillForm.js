@@ -1,6 +1,6 @@
 import React, { useState } from 'react';
 import './CourseFillForm.css';
-import API_BASE from '../api';
+import API_BASE, { authFetch } from '../api';
 
 export default function CourseFillForm({ onCreated }) {
   const [title, setTitle] = useState('');
@@ -27,13 +27,10 @@ export default function CourseFillForm({ onCreated }) {
     if (Object.keys(newErrors).length > 0) { setSaving(false); return; }
     const payload = { title, code, credits: Number(credits), department, description };
     try {
-      // Get JWT token from localStorage
-      const user = JSON.parse(localStorage.getItem('user') || '{}');
-      const res = await fetch(`${API_BASE}/api/courses`, {
+      const res = await authFetch(`${API_BASE}/api/courses`, {
         method: 'POST',
         headers: {
-          'Content-Type': 'application/json',
-          ...(user.token ? { 'Authorization': 'Bearer ' + user.token } : {})
+          'Content-Type': 'application/json'
         },
         body: JSON.stringify(payload)
       });
@@ -16,7 +16,7 @@ import {
 } from 'lucide-react';
 import Modal from './Modal';
 import CourseFillForm from './CourseFillForm';
-import API_BASE from '../api';
+import API_BASE, { authFetch } from '../api';
 import './Dashboard.css';
 
 export default function Dashboard() {
@@ -45,92 +45,59 @@ export default function Dashboard() {
   const loadDashboardData = async () => {
     setLoading(true);
     try {
-      const token = localStorage.getItem('authToken');
       const headers = {
-        'Content-Type': 'application/json',
-        ...(token && { 'Authorization': `Bearer ${token}` })
+        'Content-Type': 'application/json'
       };
 
-      // Fetch dashboard stats
-      try {
-        const statsRes = await fetch(`${API_BASE}/api/dashboard/stats`, { headers });
-        if (statsRes.ok) {
-          const data = await statsRes.json();
-          setStats([
-            { 
-              label: 'Total Courses', 
-              value: data.totalCourses || 0, 
-              icon: <BookOpen size={28} />, 
-              color: 'from-blue-500 to-blue-600',
-              change: data.courseGrowth || '+0%'
-            },
-            { 
-              label: 'Total Students', 
-              value: data.totalStudents || 0, 
-              icon: <Users size={28} />, 
-              color: 'from-green-500 to-green-600',
-              change: data.studentGrowth || '+0%'
-            },
-            { 
-              label: 'Active Enrollments', 
-              value: data.totalEnrollments || 0, 
-              icon: <ClipboardList size={28} />, 
-              color: 'from-purple-500 to-purple-600',
-              change: data.enrollmentGrowth || '+0%'
-            },
-            { 
-              label: 'Completion Rate', 
-              value: `${data.completionRate || 0}%`, 
-              icon: <TrendingUp size={28} />, 
-              color: 'from-orange-500 to-orange-600',
-              change: data.completionGrowth || '+0%'
-            },
-          ]);
-        }
-      } catch (error) {
-        console.error('Error fetching stats:', error);
-        // Set default stats if API fails
-        setStats([
-          { 
-            label: 'Total Courses', 
-            value: 0, 
-            icon: <BookOpen size={28} />, 
-            color: 'from-blue-500 to-blue-600',
-            change: '+0%'
-          },
-          { 
-            label: 'Total Students', 
-            value: 0, 
-            icon: <Users size={28} />, 
-            color: 'from-green-500 to-green-600',
-            change: '+0%'
-          },
-          { 
-            label: 'Active Enrollments', 
-            value: 0, 
-            icon: <ClipboardList size={28} />, 
-            color: 'from-purple-500 to-purple-600',
-            change: '+0%'
-          },
-          { 
-            label: 'Completion Rate', 
-            value: '0%', 
-            icon: <TrendingUp size={28} />, 
-            color: 'from-orange-500 to-orange-600',
-            change: '+0%'
-          },
-        ]);
-      }
+      // Fetch every dashboard section in one request, plus the course and student previews
+      const [summaryRes, coursesRes, studentsRes] = await Promise.allSettled([
+        authFetch(`${API_BASE}/api/dashboard/summary`, { headers }),
+        authFetch(`${API_BASE}/api/courses`, { headers }),
+        authFetch(`${API_BASE}/api/students`, { headers })
+      ]);
+
+      const summary = summaryRes.status === 'fulfilled' && summaryRes.value.ok
+        ? await summaryRes.value.json()
+        : null;
+      const data = summary?.stats || {};
 
-      // Fetch other dynamic data
-      const [coursesRes, studentsRes, enrollmentStatsRes, activityRes, deptRes] = await Promise.allSettled([
-        fetch(`${API_BASE}/api/courses`, { headers }),
-        fetch(`${API_BASE}/api/students`, { headers }),
-        fetch(`${API_BASE}/api/dashboard/enrollment-stats`, { headers }),
-        fetch(`${API_BASE}/api/dashboard/recent-activity`, { headers }),
-        fetch(`${API_BASE}/api/dashboard/courses-by-department`, { headers })
+      setStats([
+        { 
+          label: 'Total Courses', 
+          value: data.totalCourses || 0, 
+          icon: <BookOpen size={28} />, 
+          color: 'from-blue-500 to-blue-600',
+          change: data.courseGrowth || '+0%'
+        },
+        { 
+          label: 'Total Students', 
+          value: data.totalStudents || 0, 
+          icon: <Users size={28} />, 
+          color: 'from-green-500 to-green-600',
+          change: data.studentGrowth || '+0%'
+        },
+        { 
+          label: 'Active Enrollments', 
+          value: data.totalEnrollments || 0, 
+          icon: <ClipboardList size={28} />, 
+          color: 'from-purple-500 to-purple-600',
+          change: data.enrollmentGrowth || '+0%'
+        },
+        { 
+          label: 'Completion Rate', 
+          value: `${data.completionRate || 0}%`, 
+          icon: <TrendingUp size={28} />, 
+          color: 'from-orange-500 to-orange-600',
+          change: data.completionGrowth || '+0%'
+        },
       ]);
 
+      if (summary) {
+        setEnrollmentStats(summary.enrollmentStats || {});
+        setRecentActivity(summary.recentActivity || []);
+        setCoursesByDept(summary.coursesByDepartment || []);
+      }
+
       // Process courses data
       if (coursesRes.status === 'fulfilled' && coursesRes.value.ok) {
         const courses = await coursesRes.value.json();
@@ -143,24 +110,6 @@ export default function Dashboard() {
         setRecentStudents(students.slice(0, 5));
       }
 
-      // Process enrollment stats
-      if (enrollmentStatsRes.status === 'fulfilled' && enrollmentStatsRes.value.ok) {
-        const enrollmentStatsData = await enrollmentStatsRes.value.json();
-        setEnrollmentStats(enrollmentStatsData);
-      }
-
-      // Process recent activity
-      if (activityRes.status === 'fulfilled' && activityRes.value.ok) {
-        const activityData = await activityRes.value.json();
-        setRecentActivity(activityData);
-      }
-
-      // Process courses by department
-      if (deptRes.status === 'fulfilled' && deptRes.value.ok) {
-        const deptData = await deptRes.value.json();
-        setCoursesByDept(deptData);
-      }
-
     } catch (error) {
       console.error('Error loading dashboard data:', error);
     } finally {
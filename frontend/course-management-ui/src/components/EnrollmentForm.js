@@ -1,5 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import './EnrollmentForm.css';
+import { authFetch } from '../api';
 import { 
   X, 
   Save, 
@@ -10,6 +11,78 @@ import {
   CheckCircle 
 } from 'lucide-react';
 
+const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
+
+// Text box that offers matches from a /suggest endpoint as the user types
+function SuggestInput({ id, endpoint, placeholder, value, onSelect }) {
+  const [query, setQuery] = useState(value?.label || '');
+  const [suggestions, setSuggestions] = useState([]);
+  const [open, setOpen] = useState(false);
+  const requestSeq = useRef(0);
+
+  useEffect(() => {
+    if (value) {
+      setQuery(value.label);
+    }
+  }, [value]);
+
+  useEffect(() => {
+    if (!open || !query.trim()) {
+      setSuggestions([]);
+      return;
+    }
+    // Wait for a pause in typing, and ignore responses to older keystrokes
+    const seq = ++requestSeq.current;
+    const timer = setTimeout(async () => {
+      try {
+        const headers = { 'Content-Type': 'application/json' };
+        const res = await authFetch(`${API_BASE}/api/${endpoint}/suggest?q=${encodeURIComponent(query)}&limit=10`, { headers });
+        if (res.ok && seq === requestSeq.current) {
+          setSuggestions(await res.json());
+        }
+      } catch (error) {
+        console.error(`Error fetching ${endpoint} suggestions:`, error);
+      }
+    }, 120);
+    return () => clearTimeout(timer);
+  }, [query, open, endpoint]);
+
+  const choose = (suggestion) => {
+    setQuery(suggestion.label);
+    setOpen(false);
+    onSelect(suggestion);
+  };
+
+  return (
+    <div className="suggest-input">
+      <input
+        id={id}
+        type="text"
+        className="form-input"
+        placeholder={placeholder}
+        value={query}
+        autoComplete="off"
+        onChange={(e) => {
+          setQuery(e.target.value);
+          setOpen(true);
+          onSelect(null);
+        }}
+        onFocus={() => setOpen(true)}
+        onBlur={() => setTimeout(() => setOpen(false), 150)}
+      />
+      {open && suggestions.length > 0 && (
+        <ul className="suggest-list">
+          {suggestions.map(suggestion => (
+            <li key={suggestion.id} onMouseDown={() => choose(suggestion)}>
+              {suggestion.label}
+            </li>
+          ))}
+        </ul>
+      )}
+    </div>
+  );
+}
+
 export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment = null }) {
   const [formData, setFormData] = useState({
     studentId: '',
@@ -20,17 +93,17 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
     score: ''
   });
   
-  const [students, setStudents] = useState([]);
-  const [courses, setCourses] = useState([]);
+  const [selectedStudent, setSelectedStudent] = useState(null);
+  const [selectedCourse, setSelectedCourse] = useState(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const [success, setSuccess] = useState('');
 
   useEffect(() => {
-    fetchStudents();
-    fetchCourses();
-      
     if (editingEnrollment) {
+      const { student, course } = editingEnrollment;
+      setSelectedStudent(student ? { id: student.id, label: `${student.firstName} ${student.lastName} (${student.studentId})` } : null);
+      setSelectedCourse(course ? { id: course.id, label: `${course.code} - ${course.title}` } : null);
       setFormData({
         studentId: editingEnrollment.student?.id || '',
         courseId: editingEnrollment.course?.id || '',
@@ -44,59 +117,14 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
     }
   }, [editingEnrollment]);
 
-  async function fetchStudents() {
-    try {
-      const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
-      
-      const headers = {
-        'Content-Type': 'application/json'
-      };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-
-      const res = await fetch(`${API_BASE}/api/students`, {
-        method: 'GET',
-        headers: headers
-      });
-      
-      if (res.ok) {
-        const data = await res.json();
-        setStudents(data);
-      }
-    } catch (error) {
-      console.error('Error fetching students:', error);
-    }
-  }
-
-  async function fetchCourses() {
-    try {
-      const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
-      
-      const headers = {
-        'Content-Type': 'application/json'
-      };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-
-      const res = await fetch(`${API_BASE}/api/courses`, {
-        method: 'GET',
-        headers: headers
-      });
-      
-      if (res.ok) {
-        const data = await res.json();
-        setCourses(data);
-      }
-    } catch (error) {
-      console.error('Error fetching courses:', error);
-    }
-  }
+  const handleSelect = (name, setSelected) => (suggestion) => {
+    setSelected(suggestion);
+    setFormData(prev => ({
+      ...prev,
+      [name]: suggestion ? suggestion.id : ''
+    }));
+    setError('');
+  };
 
   const handleInputChange = (e) => {
     const { name, value } = e.target;
@@ -120,16 +148,10 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
     setSuccess('');
 
     try {
-      const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
 
       const enrollmentData = {
         studentId: parseInt(formData.studentId),
@@ -145,7 +167,7 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
       
       const method = editingEnrollment ? 'PUT' : 'POST';
 
-      const res = await fetch(url, {
+      const res = await authFetch(url, {
         method: method,
         headers: headers,
         body: JSON.stringify(enrollmentData)
@@ -162,7 +184,7 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
             score: formData.score ? parseFloat(formData.score) : null
           };
 
-          const gradeRes = await fetch(`${API_BASE}/api/enrollments/${editingEnrollment.id}/grade`, {
+          const gradeRes = await authFetch(`${API_BASE}/api/enrollments/${editingEnrollment.id}/grade`, {
             method: 'PUT',
             headers: headers,
             body: JSON.stringify(gradeData)
@@ -201,6 +223,8 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
       grade: '',
       score: ''
     });
+    setSelectedStudent(null);
+    setSelectedCourse(null);
     setError('');
     setSuccess('');
   };
@@ -246,21 +270,13 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
               <User className="label-icon" />
               Select Student
             </label>
-            <select
+            <SuggestInput
               id="studentId"
-              name="studentId"
-              value={formData.studentId}
-              onChange={handleInputChange}
-              className="form-select"
-              required
-            >
-              <option value="">Choose a student...</option>
-              {students.map(student => (
-                <option key={student.id} value={student.id}>
-                  {student.firstName} {student.lastName} ({student.email})
-                </option>
-              ))}
-            </select>
+              endpoint="students"
+              placeholder="Type a name, student ID or email..."
+              value={selectedStudent}
+              onSelect={handleSelect('studentId', setSelectedStudent)}
+            />
           </div>
 
           <div className="form-group">
@@ -268,21 +284,13 @@ export default function EnrollmentForm({ onClose, onSubmit, editingEnrollment =
               <BookOpen className="label-icon" />
               Select Course
             </label>
-            <select
+            <SuggestInput
               id="courseId"
-              name="courseId"
-              value={formData.courseId}
-              onChange={handleInputChange}
-              className="form-select"
-              required
-            >
-              <option value="">Choose a course...</option>
-              {courses.map(course => (
-                <option key={course.id} value={course.id}>
-                  {course.code} - {course.title}
-                </option>
-              ))}
-            </select>
+              endpoint="courses"
+              placeholder="Type a course code or title..."
+              value={selectedCourse}
+              onSelect={handleSelect('courseId', setSelectedCourse)}
+            />
           </div>
 
           <div className="form-group">
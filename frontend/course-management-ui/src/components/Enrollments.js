@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import './Enrollments.css';
+import { authFetch } from '../api';
 import EnrollmentForm from './EnrollmentForm';
 import { 
   Plus, 
@@ -70,17 +71,12 @@ export default function Enrollments() {
     setError(null);
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
 
-      const res = await fetch(`${API_BASE}/api/enrollments`, {
+      const res = await authFetch(`${API_BASE}/api/enrollments`, {
         method: 'GET',
         headers: headers
       });
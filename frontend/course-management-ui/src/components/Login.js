@@ -1,6 +1,7 @@
 
 import React, { useState } from 'react';
 import './Auth.css';
+import { saveSession } from '../api';
 
 const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
 
@@ -23,13 +24,8 @@ export default function Login() {
       });
       const data = await res.json();
       if (res.ok && data.token) {
-        // Save user info and token to localStorage
-        const userObj = {
-          name: data.firstName || email,
-          role: data.role,
-          token: data.token
-        };
-        localStorage.setItem('user', JSON.stringify(userObj));
+        // Save user info and tokens to localStorage; api.js refreshes them as they expire
+        const userObj = saveSession({ name: data.firstName || email, role: data.role }, data);
         console.log('User info saved to localStorage:', userObj);
         setMessage('Login successful!');
         setEmail(''); setPassword('');
@@ -1,6 +1,7 @@
 
 import React, { useEffect, useState, useRef } from 'react';
 import './Navigation.css';
+import { endSession } from '../api';
 import { Link, useNavigate } from 'react-router-dom';
 import { Grid, LogIn, UserPlus, Users, ClipboardList, BookOpen, LogOut, Settings, User, ChevronDown } from 'lucide-react';
 
@@ -30,8 +31,8 @@ export default function Navigation() {
     };
   }, []);
 
-  const handleLogout = () => {
-    localStorage.removeItem('user');
+  const handleLogout = async () => {
+    await endSession();
     setUser(null);
     setShowUserMenu(false);
     navigate('/');
@@ -1,5 +1,6 @@
 import React, { useState } from 'react';
 import './StudentForm.css';
+import { authFetch } from '../api';
 import { User, Mail, GraduationCap, Save, Loader, Phone } from 'lucide-react';
 
 export default function StudentForm({ onCreated }) {
@@ -30,17 +31,12 @@ export default function StudentForm({ onCreated }) {
     
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-      
-      const res = await fetch(`${API_BASE}/api/students`, { 
+
+      const res = await authFetch(`${API_BASE}/api/students`, { 
         method:'POST', 
         headers: headers, 
         body:JSON.stringify(payload)
@@ -1,5 +1,6 @@
 import React, { useEffect, useState, useCallback } from 'react';
 import './StudentGrades.css';
+import { authFetch } from '../api';
 import { BookOpen, Award, TrendingUp, Calendar, BarChart3 } from 'lucide-react';
 
 export default function StudentGrades({ studentId }) {
@@ -95,18 +96,14 @@ export default function StudentGrades({ studentId }) {
     setLoading(true);
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
       
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
       
       // Fetch enrollments for the student which contain grades
-      const res = await fetch(`${API_BASE}/api/enrollments/student/${studentId}`, {
+      const res = await authFetch(`${API_BASE}/api/enrollments/student/${studentId}`, {
         method: 'GET',
         headers: headers
       });
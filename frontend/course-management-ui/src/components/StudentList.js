@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import './StudentList.css';
+import { authFetch } from '../api';
 import { User, Mail, GraduationCap, Calendar, RefreshCw } from 'lucide-react';
 
 export default function StudentList({ onSelect, refreshKey, students: propStudents }) {
@@ -20,17 +21,12 @@ export default function StudentList({ onSelect, refreshKey, students: propStuden
     setError(null);
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-      
-      const res = await fetch(`${API_BASE}/api/students`, {
+
+      const res = await authFetch(`${API_BASE}/api/students`, {
         method: 'GET',
         headers: headers
       });
@@ -4,6 +4,7 @@ import StudentForm from './StudentForm';
 import StudentGrades from './StudentGrades';
 import Modal from './Modal';
 import './Students.css';
+import { authFetch } from '../api';
 import { 
   Plus, 
   Search, 
@@ -51,17 +52,12 @@ export default function Students() {
     setLoading(true);
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-      
-      const res = await fetch(`${API_BASE}/api/students`, {
+
+      const res = await authFetch(`${API_BASE}/api/students`, {
         method: 'GET',
         headers: headers
       });
@@ -97,17 +93,12 @@ export default function Students() {
     let activeEnrollments = 0;
     try {
       const API_BASE = process.env.REACT_APP_API_BASE || 'http://localhost:8080';
-      const token = localStorage.getItem('authToken');
       
       const headers = {
         'Content-Type': 'application/json'
       };
-      
-      if (token) {
-        headers['Authorization'] = `Bearer ${token}`;
-      }
-      
-      const enrollmentRes = await fetch(`${API_BASE}/api/enrollments`, {
+
+      const enrollmentRes = await authFetch(`${API_BASE}/api/enrollments`, {
         method: 'GET',
         headers: headers
       });